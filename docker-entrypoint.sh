@@ -0,0 +1,16 @@
+#!/bin/sh
+# Starts the service with an AppCDS archive. The first start records the loaded classes
+# into /app/cds/app.jsa when the JVM exits (docker stop); later starts map that archive
+# instead of loading and verifying the same classes again. A stale archive (new image,
+# different JVM) is ignored by the JVM, delete the volume to record a fresh one.
+set -e
+
+CDS_ARCHIVE=/app/cds/app.jsa
+if [ -f "$CDS_ARCHIVE" ]; then
+    CDS_OPTS="-XX:SharedArchiveFile=$CDS_ARCHIVE -Xshare:auto"
+else
+    CDS_OPTS="-XX:ArchiveClassesAtExit=$CDS_ARCHIVE"
+fi
+
+exec java $CDS_OPTS $JAVA_OPTS \
+    -cp "/app/application.jar:/app/lib/*" "$(cat /app/start-class)" "$@"
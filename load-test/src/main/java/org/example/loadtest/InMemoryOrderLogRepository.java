@@ -0,0 +1,62 @@
+package org.example.loadtest;
+
+import org.example.logservice.model.OrderProcessingLog;
+import org.example.logservice.repository.OrderProcessingLogRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stands in for MongoDB behind the log service. Keeps the logs in a map keyed on the order id,
+ * which is what the Mongo upsert does; only the repository methods the log service calls are
+ * supported.
+ */
+final class InMemoryOrderLogRepository {
+
+    private InMemoryOrderLogRepository() {
+    }
+
+    static OrderProcessingLogRepository create() {
+        Map<Long, OrderProcessingLog> logs = new ConcurrentHashMap<>();
+        return (OrderProcessingLogRepository) Proxy.newProxyInstance(
+                InMemoryOrderLogRepository.class.getClassLoader(),
+                new Class<?>[]{OrderProcessingLogRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                            OrderProcessingLog log = (OrderProcessingLog) args[0];
+                            logs.put(log.getOrderId(), log);
+                            return log;
+                        case "findById":
+                            return Optional.ofNullable(logs.get(args[0]));
+                        case "existsById":
+                            return logs.containsKey(args[0]);
+                        case "findAll":
+                            if (args == null) {
+                                return new ArrayList<>(logs.values());
+                            }
+                            break;
+                        case "count":
+                            return (long) logs.size();
+                        case "deleteAll":
+                            if (args == null) {
+                                logs.clear();
+                                return null;
+                            }
+                            break;
+                        case "toString":
+                            return "InMemoryOrderLogRepository(" + logs.size() + " logs)";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            break;
+                    }
+                    throw new UnsupportedOperationException(method.getName() + " is not supported by the load test stand-in");
+                });
+    }
+}
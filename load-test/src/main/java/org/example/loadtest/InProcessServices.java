@@ -0,0 +1,143 @@
+package org.example.loadtest;
+
+import org.example.OrderManagementApplication;
+import org.example.logservice.OrderProcessingLogApplication;
+import org.example.scheduler.OrderProcessingScheduler;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Both services in this JVM, each in its own application context with its own embedded Tomcat
+ * on a random port. PostgreSQL is replaced by an in-memory H2 database migrated by the real
+ * Flyway scripts, MongoDB by {@link InMemoryOrderLogRepository}. The services otherwise run
+ * with their own application.properties and the prod profile, as in docker-compose.
+ */
+final class InProcessServices implements Closeable {
+
+    private static final String MONGO_AUTO_CONFIGURATIONS =
+            "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration";
+    private static final String JPA_AUTO_CONFIGURATIONS =
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration";
+
+    private final ConfigurableApplicationContext logService;
+    private final ConfigurableApplicationContext orderManagement;
+
+    private InProcessServices(ConfigurableApplicationContext logService, ConfigurableApplicationContext orderManagement) {
+        this.logService = logService;
+        this.orderManagement = orderManagement;
+    }
+
+    static InProcessServices start(LoadTestConfig config, Path workDir) {
+        Map<String, String> logServiceProperties = commonProperties(OrderProcessingLogApplication.class);
+        logServiceProperties.put("spring.autoconfigure.exclude", MONGO_AUTO_CONFIGURATIONS + "," + JPA_AUTO_CONFIGURATIONS);
+        logServiceProperties.putAll(config.getLogServiceProperties());
+        ConfigurableApplicationContext logService = new SpringApplicationBuilder(OrderProcessingLogApplication.class)
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("orderProcessingLogRepository", InMemoryOrderLogRepository.create()))
+                .run(arguments(logServiceProperties));
+
+        Map<String, String> orderManagementProperties = commonProperties(OrderManagementApplication.class);
+        orderManagementProperties.put("spring.autoconfigure.exclude", MONGO_AUTO_CONFIGURATIONS);
+        orderManagementProperties.put("spring.datasource.url", "jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1");
+        orderManagementProperties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        orderManagementProperties.put("spring.datasource.username", "sa");
+        orderManagementProperties.put("spring.datasource.password", "");
+        orderManagementProperties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        orderManagementProperties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+        orderManagementProperties.put("log.service.url", "http://localhost:" + port(logService) + "/logs");
+        orderManagementProperties.put("log.client.spill-file", workDir.resolve("order-log-spill.jsonl").toString());
+        orderManagementProperties.put("orders.intake.async.journal-file", workDir.resolve("order-intake.journal").toString());
+        // The load generator runs the processing scheduler itself to time each run
+        orderManagementProperties.put("app.processing.initial-delay-ms", "86400000");
+        orderManagementProperties.put("app.archive.enabled", "false");
+        orderManagementProperties.putAll(config.getOrderManagementProperties());
+        ConfigurableApplicationContext orderManagement = new SpringApplicationBuilder(OrderManagementApplication.class)
+                // org.example.* also matches the log service and this module, keep them out of the scan
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("loadTestExcludeFilter", new OtherModulesExcludeFilter()))
+                .run(arguments(orderManagementProperties));
+
+        return new InProcessServices(logService, orderManagement);
+    }
+
+    String orderManagementUrl() {
+        return "http://localhost:" + port(orderManagement);
+    }
+
+    String logServiceUrl() {
+        return "http://localhost:" + port(logService);
+    }
+
+    void runOrderProcessing() {
+        orderManagement.getBean(OrderProcessingScheduler.class).processOrders();
+    }
+
+    Statistics hibernateStatistics() {
+        return orderManagement.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void close() {
+        orderManagement.close();
+        logService.close();
+    }
+
+    private static Map<String, String> commonProperties(Class<?> applicationClass) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        // Both jars carry an application.properties at the root, read the one of this service
+        properties.put("spring.config.location", configLocation(applicationClass));
+        properties.put("spring.profiles.active", "prod");
+        properties.put("server.port", "0");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("app.jfr.enabled", "false");
+        // Request logging would dominate the profile of an in-process run; errors are still shown
+        for (String logger : new String[]{"root", "org.springframework", "org.hibernate", "org.example", "org.example.service"}) {
+            properties.put("logging.level." + logger, "WARN");
+        }
+        return properties;
+    }
+
+    private static String configLocation(Class<?> applicationClass) {
+        String location = applicationClass.getProtectionDomain().getCodeSource().getLocation().toString();
+        if (location.endsWith(".jar")) {
+            return "jar:" + location + "!/";
+        }
+        return location.endsWith("/") ? location : location + "/";
+    }
+
+    private static String[] arguments(Map<String, String> properties) {
+        List<String> arguments = new ArrayList<>();
+        properties.forEach((name, value) -> arguments.add("--" + name + "=" + value));
+        return arguments.toArray(new String[0]);
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    static class OtherModulesExcludeFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            String className = metadataReader.getClassMetadata().getClassName();
+            return className.startsWith("org.example.logservice.") || className.startsWith("org.example.loadtest.");
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.example.loadtest;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop generator: each operation has a dispatcher that schedules requests at a fixed
+ * rate and hands them to a shared worker pool, so a slow service sees requests pile up the
+ * way it would in production instead of the generator slowing down with it. Request content
+ * comes from seeded random generators, the same settings send the same requests.
+ */
+class LoadGenerator {
+
+    enum Operation {
+        CREATE, GET, UPDATE, PROCESS
+    }
+
+    private static final int KNOWN_IDS = 100_000;
+
+    private final LoadTestConfig config;
+    private final InProcessServices services;
+    private final String baseUrl;
+    private final RestTemplate restTemplate;
+    private final ExecutorService workers;
+    private final Map<Operation, OperationRecorder> recorders = new EnumMap<>(Operation.class);
+
+    // Ids of created orders for gets and updates, a ring buffer of the most recent ones
+    private final AtomicLongArray knownIds = new AtomicLongArray(KNOWN_IDS);
+    private final AtomicLong created = new AtomicLong();
+
+    private long measureFromNanos;
+    private long measureUntilNanos;
+
+    LoadGenerator(LoadTestConfig config, InProcessServices services) {
+        this.config = config;
+        this.services = services;
+        this.baseUrl = services.orderManagementUrl();
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(2000);
+        requestFactory.setReadTimeout(30000);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.restTemplate.setErrorHandler(new ResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+            @Override
+            public void handleError(ClientHttpResponse response) {
+            }
+        });
+        this.workers = new ThreadPoolExecutor(config.getWorkers(), config.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("loadtest-worker-"));
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new OperationRecorder());
+        }
+    }
+
+    /**
+     * Sends the initial orders, then warmup plus measured traffic.
+     *
+     * @return the report of each operation over the measured period
+     */
+    Map<String, LoadTestReport.OperationReport> run(int initialOrders, Runnable onMeasureStart) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+        for (int i = 0; i < initialOrders; i++) {
+            create(random, System.nanoTime(), false);
+        }
+
+        long start = System.nanoTime();
+        measureFromNanos = start + config.getWarmup().toNanos();
+        measureUntilNanos = measureFromNanos + config.getDuration().toNanos();
+
+        List<Thread> dispatchers = new ArrayList<>();
+        dispatchers.add(dispatcher(Operation.CREATE, config.getCreateRate(), start));
+        dispatchers.add(dispatcher(Operation.GET, config.getGetRate(), start));
+        dispatchers.add(dispatcher(Operation.UPDATE, config.getUpdateRate(), start));
+        dispatchers.add(processDispatcher(start));
+        dispatchers.forEach(Thread::start);
+
+        LockSupport.parkNanos(measureFromNanos - System.nanoTime());
+        onMeasureStart.run();
+
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join();
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+
+        double measuredSeconds = config.getDuration().toMillis() / 1000.0;
+        Map<String, LoadTestReport.OperationReport> reports = new LinkedHashMap<>();
+        recorders.forEach((operation, recorder) ->
+                reports.put(operation.name().toLowerCase(), recorder.report(measuredSeconds)));
+        return reports;
+    }
+
+    private Thread dispatcher(Operation operation, double ratePerSecond, long start) {
+        SplittableRandom random = new SplittableRandom(config.getSeed() + operation.ordinal() + 1);
+        Thread thread = new Thread(() -> {
+            if (ratePerSecond <= 0) {
+                return;
+            }
+            double intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+            for (long n = 0; ; n++) {
+                long scheduled = start + (long) (n * intervalNanos);
+                if (scheduled >= measureUntilNanos) {
+                    return;
+                }
+                LockSupport.parkNanos(scheduled - System.nanoTime());
+                Runnable request = request(operation, random.split(), scheduled);
+                workers.execute(request);
+            }
+        }, "loadtest-" + operation.name().toLowerCase());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Processing runs in-process on its own thread, one run at a time like the real scheduler.
+     */
+    private Thread processDispatcher(long start) {
+        long intervalNanos = config.getProcessInterval().toNanos();
+        Thread thread = new Thread(() -> {
+            for (long n = 1; ; n++) {
+                long scheduled = start + n * intervalNanos;
+                if (scheduled >= measureUntilNanos) {
+                    return;
+                }
+                LockSupport.parkNanos(scheduled - System.nanoTime());
+                String outcome = "ok";
+                try {
+                    services.runOrderProcessing();
+                } catch (RuntimeException e) {
+                    outcome = e.getClass().getSimpleName();
+                }
+                record(Operation.PROCESS, scheduled, outcome, !outcome.equals("ok"));
+            }
+        }, "loadtest-process");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private Runnable request(Operation operation, SplittableRandom random, long scheduled) {
+        switch (operation) {
+            case CREATE:
+                return () -> create(random, scheduled, true);
+            case GET:
+                return () -> {
+                    long id = pickId(random);
+                    exchange(Operation.GET, scheduled, HttpMethod.GET, "/orders/" + id, null);
+                };
+            case UPDATE:
+                return () -> {
+                    long id = pickId(random);
+                    exchange(Operation.UPDATE, scheduled, HttpMethod.PUT, "/orders/" + id, orderBody(random, "Updated"));
+                };
+            default:
+                throw new IllegalArgumentException("Not an HTTP operation: " + operation);
+        }
+    }
+
+    private void create(SplittableRandom random, long scheduled, boolean recorded) {
+        ResponseEntity<String> response = exchange(recorded ? Operation.CREATE : null, scheduled,
+                HttpMethod.POST, "/orders", orderBody(random, "Customer"));
+        if (response != null && response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            long index = created.getAndIncrement();
+            knownIds.set((int) (index % KNOWN_IDS), Long.parseLong(response.getBody().trim()));
+        }
+    }
+
+    private ResponseEntity<String> exchange(Operation operation, long scheduled, HttpMethod method, String path,
+                                            Map<String, Object> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = null;
+        String outcome;
+        boolean error;
+        try {
+            response = restTemplate.exchange(baseUrl + path, method, new HttpEntity<>(body, headers), String.class);
+            outcome = String.valueOf(response.getStatusCodeValue());
+            error = !response.getStatusCode().is2xxSuccessful();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            error = true;
+        }
+        if (operation != null) {
+            record(operation, scheduled, outcome, error);
+        }
+        return response;
+    }
+
+    private void record(Operation operation, long scheduled, String outcome, boolean error) {
+        if (scheduled >= measureFromNanos && scheduled < measureUntilNanos) {
+            recorders.get(operation).record(scheduled, System.nanoTime(), outcome, error);
+        }
+    }
+
+    private long pickId(SplittableRandom random) {
+        int known = (int) Math.min(created.get(), KNOWN_IDS);
+        return known == 0 ? 1 : knownIds.get(random.nextInt(known));
+    }
+
+    private static Map<String, Object> orderBody(SplittableRandom random, String namePrefix) {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        int lineCount = 1 + random.nextInt(5);
+        for (int i = 0; i < lineCount; i++) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("productId", 1 + random.nextInt(1000));
+            line.put("quantity", 1 + random.nextInt(10));
+            line.put("price", BigDecimal.valueOf(100 + random.nextInt(10000), 2));
+            lines.add(line);
+        }
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("customerName", namePrefix + " " + random.nextInt(10000));
+        order.put("orderLines", lines);
+        return order;
+    }
+}
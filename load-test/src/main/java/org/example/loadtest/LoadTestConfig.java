@@ -0,0 +1,101 @@
+package org.example.loadtest;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Settings of a load test run: loadtest.properties overridden by system properties.
+ */
+@Getter
+public class LoadTestConfig {
+
+    private static final String PREFIX = "loadtest.";
+    static final String ORDER_MANAGEMENT_PREFIX = PREFIX + "order-management.";
+    static final String LOG_SERVICE_PREFIX = PREFIX + "log-service.";
+
+    private final Duration warmup;
+    private final Duration duration;
+    private final double createRate;
+    private final double getRate;
+    private final double updateRate;
+    private final Duration processInterval;
+    private final int workers;
+    private final long seed;
+    private final Path reportDir;
+    // Traffic replay, see TrafficReplay; the file is only required there
+    private final Path replayFile;
+    private final double replaySpeed;
+    private final String replayTarget;
+    private final String replayService;
+    private final Map<String, String> orderManagementProperties;
+    private final Map<String, String> logServiceProperties;
+
+    LoadTestConfig(Properties properties) {
+        this.warmup = Duration.parse(required(properties, "warmup"));
+        this.duration = Duration.parse(required(properties, "duration"));
+        this.createRate = Double.parseDouble(required(properties, "create-rate"));
+        this.getRate = Double.parseDouble(required(properties, "get-rate"));
+        this.updateRate = Double.parseDouble(required(properties, "update-rate"));
+        this.processInterval = Duration.parse(required(properties, "process-interval"));
+        this.workers = Integer.parseInt(required(properties, "workers"));
+        this.seed = Long.parseLong(required(properties, "seed"));
+        this.reportDir = Paths.get(required(properties, "report-dir"));
+        String replayFile = optional(properties, "replay.file");
+        this.replayFile = replayFile != null ? Paths.get(replayFile) : null;
+        this.replaySpeed = Double.parseDouble(required(properties, "replay.speed"));
+        this.replayTarget = optional(properties, "replay.target");
+        this.replayService = required(properties, "replay.service");
+        this.orderManagementProperties = withPrefix(properties, ORDER_MANAGEMENT_PREFIX);
+        this.logServiceProperties = withPrefix(properties, LOG_SERVICE_PREFIX);
+    }
+
+    public static LoadTestConfig load() {
+        Properties properties = new Properties();
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (defaults != null) {
+                properties.load(defaults);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read loadtest.properties", e);
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(PREFIX)) {
+                properties.setProperty(name, System.getProperty(name));
+            }
+        }
+        return new LoadTestConfig(properties);
+    }
+
+    private static String required(Properties properties, String name) {
+        String value = optional(properties, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing load test setting " + PREFIX + name);
+        }
+        return value;
+    }
+
+    private static String optional(Properties properties, String name) {
+        String value = properties.getProperty(PREFIX + name);
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    private static Map<String, String> withPrefix(Properties properties, String prefix) {
+        Map<String, String> selected = new TreeMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(prefix)) {
+                selected.put(name.substring(prefix.length()), properties.getProperty(name));
+            }
+        }
+        return Collections.unmodifiableMap(selected);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.loadtest;
+
+import lombok.Value;
+import org.hibernate.stat.Statistics;
+
+import java.util.Map;
+
+/**
+ * Result of one load test run, written as JSON so runs on different commits can be compared
+ * with {@link ReportComparison}.
+ */
+@Value
+public class LoadTestReport {
+    String commit;
+    String startedAt;
+    String javaVersion;
+    int availableProcessors;
+    Map<String, String> settings;
+    double measuredSeconds;
+    Map<String, OperationReport> operations;
+    DatabaseReport database;
+
+    @Value
+    public static class OperationReport {
+        long count;
+        long errors;
+        double throughputPerSecond;
+        double meanMs;
+        double p50Ms;
+        double p90Ms;
+        double p99Ms;
+        double p999Ms;
+        double maxMs;
+        // by HTTP status code
+        Map<String, Long> outcomes;
+    }
+
+    /**
+     * Hibernate statistics of the order management service over the measured period. Plain
+     * JdbcTemplate statements (archiving, async intake batches) are not included.
+     */
+    @Value
+    public static class DatabaseReport {
+        long preparedStatements;
+        long queries;
+        long entityLoads;
+        long entityInserts;
+        long entityUpdates;
+        long entityDeletes;
+        long collectionFetches;
+        long transactions;
+        double statementsPerRequest;
+
+        static DatabaseReport of(Statistics statistics, long requests) {
+            return new DatabaseReport(
+                    statistics.getPrepareStatementCount(),
+                    statistics.getQueryExecutionCount(),
+                    statistics.getEntityLoadCount(),
+                    statistics.getEntityInsertCount(),
+                    statistics.getEntityUpdateCount(),
+                    statistics.getEntityDeleteCount(),
+                    statistics.getCollectionFetchCount(),
+                    statistics.getTransactionCount(),
+                    requests == 0 ? 0 : Math.round(100.0 * statistics.getPrepareStatementCount() / requests) / 100.0);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.hibernate.stat.Statistics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entry point of the load test: starts the services, runs the workload and writes the report
+ * to {@code <report-dir>/<timestamp>-<commit>.json}.
+ */
+public class LoadTestRunner {
+
+    private static final int INITIAL_ORDERS = 500;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load();
+        // HttpURLConnection keeps at most 5 idle connections per host by default
+        System.setProperty("http.maxConnections", String.valueOf(config.getWorkers()));
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        String commit = commitId();
+        Path workDir = Files.createTempDirectory("load-test");
+        LoadTestReport report;
+        try (InProcessServices services = InProcessServices.start(config, workDir)) {
+            System.out.printf("Services started, warming up for %s then measuring for %s%n",
+                    config.getWarmup(), config.getDuration());
+            Statistics statistics = services.hibernateStatistics();
+            LoadGenerator generator = new LoadGenerator(config, services);
+            Map<String, LoadTestReport.OperationReport> operations = generator.run(INITIAL_ORDERS, statistics::clear);
+            long requests = operations.values().stream().mapToLong(LoadTestReport.OperationReport::getCount).sum();
+            report = new LoadTestReport(
+                    commit,
+                    startedAt.toString(),
+                    System.getProperty("java.version"),
+                    Runtime.getRuntime().availableProcessors(),
+                    settings(config),
+                    config.getDuration().toMillis() / 1000.0,
+                    operations,
+                    LoadTestReport.DatabaseReport.of(statistics, requests));
+        }
+
+        Files.createDirectories(config.getReportDir());
+        Path file = config.getReportDir().resolve(startedAt.format(FILE_TIMESTAMP) + "-" + commit + ".json");
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        objectMapper.writeValue(file.toFile(), report);
+        print(report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private static Map<String, String> settings(LoadTestConfig config) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("warmup", config.getWarmup().toString());
+        settings.put("duration", config.getDuration().toString());
+        settings.put("create-rate", String.valueOf(config.getCreateRate()));
+        settings.put("get-rate", String.valueOf(config.getGetRate()));
+        settings.put("update-rate", String.valueOf(config.getUpdateRate()));
+        settings.put("process-interval", config.getProcessInterval().toString());
+        settings.put("workers", String.valueOf(config.getWorkers()));
+        settings.put("seed", String.valueOf(config.getSeed()));
+        config.getOrderManagementProperties().forEach((name, value) ->
+                settings.put(LoadTestConfig.ORDER_MANAGEMENT_PREFIX + name, value));
+        config.getLogServiceProperties().forEach((name, value) ->
+                settings.put(LoadTestConfig.LOG_SERVICE_PREFIX + name, value));
+        return settings;
+    }
+
+    private static void print(LoadTestReport report) {
+        System.out.printf("%n%-8s %8s %7s %10s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "per sec", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        report.getOperations().forEach((operation, stats) ->
+                System.out.printf("%-8s %8d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", operation, stats.getCount(),
+                        stats.getErrors(), stats.getThroughputPerSecond(), stats.getP50Ms(), stats.getP99Ms(),
+                        stats.getP999Ms(), stats.getMaxMs()));
+        LoadTestReport.DatabaseReport database = report.getDatabase();
+        System.out.printf("%nstatements %d (%.2f per request), queries %d, entity loads %d, transactions %d%n",
+                database.getPreparedStatements(), database.getStatementsPerRequest(), database.getQueries(),
+                database.getEntityLoads(), database.getTransactions());
+    }
+
+    /**
+     * Short hash of HEAD, with -dirty when tracked files have uncommitted changes.
+     */
+    static String commitId() {
+        String head = git("rev-parse", "--short=12", "HEAD");
+        if (head == null || head.isEmpty()) {
+            return "unknown";
+        }
+        String changes = git("status", "--porcelain", "--untracked-files=no");
+        return changes == null || changes.isEmpty() ? head : head + "-dirty";
+    }
+
+    private static String git(String... arguments) {
+        String[] command = new String[arguments.length + 1];
+        command[0] = "git";
+        System.arraycopy(arguments, 0, command, 1, arguments.length);
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append('\n');
+                }
+            }
+            return process.waitFor() == 0 ? output.toString().trim() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
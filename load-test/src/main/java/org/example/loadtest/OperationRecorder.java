@@ -0,0 +1,63 @@
+package org.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one operation. Latencies are in microseconds, measured from the
+ * time the request was scheduled, so time spent waiting for a free worker counts too.
+ */
+class OperationRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Recorder latencies = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    /**
+     * @param outcome the HTTP status code, or a short name for calls without one
+     */
+    void record(long scheduledNanos, long completedNanos, String outcome, boolean error) {
+        record(TimeUnit.NANOSECONDS.toMicros(completedNanos - scheduledNanos), outcome, error);
+    }
+
+    /**
+     * Records a latency measured elsewhere, e.g. the duration stored in a traffic capture.
+     */
+    void record(long micros, String outcome, boolean error) {
+        latencies.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        if (error) {
+            errors.increment();
+        }
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    LoadTestReport.OperationReport report(double measuredSeconds) {
+        Histogram histogram = latencies.getIntervalHistogram();
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        long count = histogram.getTotalCount();
+        return new LoadTestReport.OperationReport(
+                count,
+                errors.sum(),
+                count / measuredSeconds,
+                millis(histogram.getMean()),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                counts);
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
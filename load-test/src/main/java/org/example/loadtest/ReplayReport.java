@@ -0,0 +1,35 @@
+package org.example.loadtest;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Result of replaying a traffic capture: per endpoint, the latencies and status codes recorded
+ * in the capture next to the ones of the replay.
+ */
+@Value
+public class ReplayReport {
+    String commit;
+    String startedAt;
+    String javaVersion;
+    int availableProcessors;
+    String file;
+    double speed;
+    String target;
+    long replayed;
+    // requests with a truncated body are not sent
+    long skipped;
+    long statusMismatches;
+    Map<String, EndpointReport> endpoints;
+
+    @Value
+    public static class EndpointReport {
+        // latencies as the service measured them, without network time
+        LoadTestReport.OperationReport captured;
+        // latencies measured from the scheduled send time
+        LoadTestReport.OperationReport replayed;
+        // "<captured status> -> <replayed status>" for every request whose status changed
+        Map<String, Long> mismatches;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Prints the throughput, latency and statement count changes between two load test reports,
+ * typically a run on the base commit and one on a change.
+ */
+public class ReportComparison {
+
+    private static final String[] METRICS = {"throughputPerSecond", "errors", "p50Ms", "p99Ms", "p999Ms"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ReportComparison <baseline.json> <candidate.json>");
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode baseline = objectMapper.readTree(new File(args[0]));
+        JsonNode candidate = objectMapper.readTree(new File(args[1]));
+
+        System.out.printf("baseline  %s%ncandidate %s%n%n", baseline.path("commit").asText(), candidate.path("commit").asText());
+        if (!baseline.path("settings").equals(candidate.path("settings"))) {
+            System.out.println("WARNING: the runs used different settings");
+        }
+        System.out.printf("%-8s %-20s %12s %12s %9s%n", "op", "metric", "baseline", "candidate", "change");
+        Iterator<Map.Entry<String, JsonNode>> operations = baseline.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> operation = operations.next();
+            JsonNode other = candidate.path("operations").path(operation.getKey());
+            for (String metric : METRICS) {
+                print(operation.getKey(), metric, operation.getValue().path(metric), other.path(metric));
+            }
+        }
+        print("db", "statementsPerRequest", baseline.path("database").path("statementsPerRequest"),
+                candidate.path("database").path("statementsPerRequest"));
+    }
+
+    private static void print(String operation, String metric, JsonNode baseline, JsonNode candidate) {
+        if (baseline.isMissingNode() || candidate.isMissingNode()) {
+            return;
+        }
+        double before = baseline.asDouble();
+        double after = candidate.asDouble();
+        String change = before == 0 ? "n/a" : String.format("%+.1f%%", 100 * (after - before) / before);
+        System.out.printf("%-8s %-20s %12.2f %12.2f %9s%n", operation, metric, before, after, change);
+    }
+}
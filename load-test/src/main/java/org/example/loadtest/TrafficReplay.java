@@ -0,0 +1,287 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.support.capture.TrafficCaptureFile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Replays a traffic capture (app.capture.enabled in either service) at its original pace, or
+ * faster with loadtest.replay.speed, and compares latencies and status codes per endpoint with
+ * the ones recorded in the capture. Like the load generator it is open-loop: each request is
+ * sent at its time whether or not earlier ones completed.
+ * <p>
+ * Ids of orders created during the capture differ from the ones created by the replay, so
+ * the id in each replayed POST response is mapped to the captured one and substituted in the
+ * paths and query values of later requests.
+ */
+public class TrafficReplay {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    // The capture is in completion order; requests are re-sorted by start time within this window
+    private static final long REORDER_WINDOW_MICROS = TimeUnit.SECONDS.toMicros(30);
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final double speed;
+    private final ExecutorService workers;
+    private final ConcurrentMap<String, String> idMapping = new ConcurrentHashMap<>();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final LongAdder mismatches = new LongAdder();
+
+    TrafficReplay(String baseUrl, double speed, int workers) {
+        this.baseUrl = baseUrl;
+        this.speed = speed;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(2000);
+        requestFactory.setReadTimeout(30000);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.restTemplate.setErrorHandler(new ResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+
+            @Override
+            public void handleError(ClientHttpResponse response) {
+            }
+        });
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("replay-worker-"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load();
+        if (config.getReplayFile() == null) {
+            System.err.println("Usage: -Dloadtest.replay.file=<capture> [-Dloadtest.replay.speed=1] [-Dloadtest.replay.target=<url>]");
+            return;
+        }
+        System.setProperty("http.maxConnections", String.valueOf(config.getWorkers()));
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        String commit = LoadTestRunner.commitId();
+        ReplayReport report;
+        if (config.getReplayTarget() != null) {
+            report = replay(config, config.getReplayTarget(), startedAt, commit);
+        } else {
+            try (InProcessServices services = InProcessServices.start(config, Files.createTempDirectory("replay"))) {
+                String target = "log-service".equals(config.getReplayService())
+                        ? services.logServiceUrl() : services.orderManagementUrl();
+                report = replay(config, target, startedAt, commit);
+            }
+        }
+
+        Files.createDirectories(config.getReportDir());
+        Path file = config.getReportDir().resolve("replay-" + startedAt.format(FILE_TIMESTAMP) + "-" + commit + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        print(report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private static ReplayReport replay(LoadTestConfig config, String target, LocalDateTime startedAt, String commit)
+            throws Exception {
+        System.out.printf("Replaying %s against %s at %sx%n", config.getReplayFile(), target, config.getReplaySpeed());
+        TrafficReplay replay = new TrafficReplay(target, config.getReplaySpeed(), config.getWorkers());
+        return replay.run(config.getReplayFile(), commit, startedAt);
+    }
+
+    ReplayReport run(Path captureFile, String commit, LocalDateTime startedAt) throws Exception {
+        long firstMicros = -1;
+        long lastMicros = 0;
+        long start = System.nanoTime();
+        PriorityQueue<TrafficCaptureFile.Record> pending =
+                new PriorityQueue<>(Comparator.comparingLong(TrafficCaptureFile.Record::getStartedAtMicros));
+        try (TrafficCaptureFile.Reader reader = TrafficCaptureFile.open(captureFile)) {
+            TrafficCaptureFile.Record next = reader.next();
+            while (next != null || !pending.isEmpty()) {
+                // Read ahead until nothing earlier than the head of the queue can still follow
+                while (next != null && (pending.isEmpty()
+                        || next.getStartedAtMicros() < pending.peek().getStartedAtMicros() + REORDER_WINDOW_MICROS)) {
+                    pending.add(next);
+                    next = reader.next();
+                }
+                TrafficCaptureFile.Record record = pending.poll();
+                if (firstMicros < 0) {
+                    firstMicros = record.getStartedAtMicros();
+                }
+                lastMicros = Math.max(lastMicros, record.getStartedAtMicros() + record.getDurationMicros());
+                long scheduled = start + (long) (TimeUnit.MICROSECONDS.toNanos(record.getStartedAtMicros() - firstMicros) / speed);
+                LockSupport.parkNanos(scheduled - System.nanoTime());
+                if (record.isBodyTruncated()) {
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                workers.execute(() -> send(record, scheduled));
+            }
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+
+        double capturedSeconds = Math.max(lastMicros - Math.max(firstMicros, 0), 1) / 1_000_000.0;
+        double replayedSeconds = capturedSeconds / speed;
+        Map<String, ReplayReport.EndpointReport> reports = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> reports.put(name, endpoint.report(capturedSeconds, replayedSeconds)));
+        return new ReplayReport(
+                commit,
+                startedAt.toString(),
+                System.getProperty("java.version"),
+                Runtime.getRuntime().availableProcessors(),
+                captureFile.toString(),
+                speed,
+                baseUrl,
+                replayed.get(),
+                skipped.get(),
+                mismatches.sum(),
+                reports);
+    }
+
+    private void send(TrafficCaptureFile.Record record, long scheduled) {
+        HttpHeaders headers = new HttpHeaders();
+        record.getHeaders().forEach(headers::set);
+        byte[] body = record.getBody().length > 0 ? record.getBody() : null;
+        String outcome;
+        String responseBody = null;
+        try {
+            RequestEntity<byte[]> request = new RequestEntity<>(body, headers,
+                    HttpMethod.resolve(record.getMethod()), URI.create(baseUrl + mapIds(record.getUri())));
+            ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+            outcome = String.valueOf(response.getStatusCodeValue());
+            responseBody = response.getBody();
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+        }
+        long completed = System.nanoTime();
+
+        String captured = String.valueOf(record.getStatus());
+        if ("POST".equals(record.getMethod()) && record.getStatus() < 300 && outcome.startsWith("2")) {
+            rememberId(new String(record.getResponseBody(), StandardCharsets.UTF_8), responseBody);
+        }
+        boolean mismatch = !captured.equals(outcome);
+        if (mismatch) {
+            mismatches.increment();
+        }
+        Endpoint endpoint = endpoints.computeIfAbsent(endpointOf(record), key -> new Endpoint());
+        endpoint.captured.record(record.getDurationMicros(), captured, false);
+        endpoint.replayed.record(scheduled, completed, outcome, mismatch);
+        if (mismatch) {
+            endpoint.mismatches.computeIfAbsent(captured + " -> " + outcome, key -> new LongAdder()).increment();
+        }
+        replayed.incrementAndGet();
+    }
+
+    private void rememberId(String capturedBody, String replayedBody) {
+        String capturedId = capturedBody.trim();
+        String replayedId = replayedBody != null ? replayedBody.trim() : "";
+        if (NUMBER.matcher(capturedId).matches() && NUMBER.matcher(replayedId).matches()) {
+            idMapping.put(capturedId, replayedId);
+        }
+    }
+
+    /**
+     * Replaces captured order ids in path segments and (comma separated) query values.
+     */
+    String mapIds(String uri) {
+        StringBuilder mapped = new StringBuilder(uri.length());
+        int tokenStart = -1;
+        for (int i = 0; i <= uri.length(); i++) {
+            char c = i < uri.length() ? uri.charAt(i) : '/';
+            boolean separator = c == '/' || c == '?' || c == '&' || c == '=' || c == ',';
+            if (!separator) {
+                if (tokenStart < 0) {
+                    tokenStart = i;
+                }
+                continue;
+            }
+            if (tokenStart >= 0) {
+                String token = uri.substring(tokenStart, i);
+                mapped.append(idMapping.getOrDefault(token, token));
+                tokenStart = -1;
+            }
+            if (i < uri.length()) {
+                mapped.append(c);
+            }
+        }
+        return mapped.toString();
+    }
+
+    /**
+     * Method and path with ids replaced by {id}, e.g. "GET /orders/{id}".
+     */
+    static String endpointOf(TrafficCaptureFile.Record record) {
+        String path = record.getUri();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (NUMBER.matcher(segments[i]).matches()) {
+                segments[i] = "{id}";
+            }
+        }
+        return record.getMethod() + " " + String.join("/", segments);
+    }
+
+    private static void print(ReplayReport report) {
+        System.out.printf("%n%-28s %9s %9s %11s %11s %11s %11s %9s%n", "endpoint", "captured", "replayed",
+                "p50 ms cap", "p50 ms rep", "p99 ms cap", "p99 ms rep", "mismatch");
+        report.getEndpoints().forEach((name, endpoint) -> {
+            long mismatched = endpoint.getMismatches().values().stream().mapToLong(Long::longValue).sum();
+            System.out.printf("%-28s %9d %9d %11.2f %11.2f %11.2f %11.2f %9d%n", name,
+                    endpoint.getCaptured().getCount(), endpoint.getReplayed().getCount(),
+                    endpoint.getCaptured().getP50Ms(), endpoint.getReplayed().getP50Ms(),
+                    endpoint.getCaptured().getP99Ms(), endpoint.getReplayed().getP99Ms(), mismatched);
+            endpoint.getMismatches().forEach((change, count) ->
+                    System.out.printf("    %-24s %9d%n", change, count));
+        });
+        System.out.printf("%nreplayed %d, skipped %d (truncated body), status mismatches %d%n",
+                report.getReplayed(), report.getSkipped(), report.getStatusMismatches());
+    }
+
+    private static class Endpoint {
+        final OperationRecorder captured = new OperationRecorder();
+        final OperationRecorder replayed = new OperationRecorder();
+        final Map<String, LongAdder> mismatches = new ConcurrentHashMap<>();
+
+        ReplayReport.EndpointReport report(double capturedSeconds, double replayedSeconds) {
+            Map<String, Long> counts = new TreeMap<>();
+            mismatches.forEach((change, count) -> counts.put(change, count.sum()));
+            return new ReplayReport.EndpointReport(
+                    captured.report(capturedSeconds), replayed.report(replayedSeconds), counts);
+        }
+    }
+}
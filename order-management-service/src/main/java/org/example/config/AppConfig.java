@@ -1,9 +1,16 @@
 package org.example.config;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.system.JavaVersion;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
-import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -13,7 +20,6 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.time.Duration;
 import java.util.Arrays;
-import java.util.List;
 
 @Configuration
 public class AppConfig {
@@ -32,22 +38,50 @@ public class AppConfig {
             @Override
             public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
                 configurer.defaultContentType(MediaType.APPLICATION_JSON)
-                          .mediaType("json", MediaType.APPLICATION_JSON);
-            }
-
-            @Override
-            public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-                MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-                converter.setSupportedMediaTypes(Arrays.asList(
-                    MediaType.APPLICATION_JSON,
-                    MediaType.APPLICATION_JSON_UTF8,
-                    MediaType.TEXT_PLAIN
-                ));
-                converters.add(converter);
+                          .mediaType("json", MediaType.APPLICATION_JSON)
+                          .mediaType("cbor", MediaType.APPLICATION_CBOR);
             }
         };
     }
 
+    /**
+     * The HTTP converters are beans so Boot puts them in place of Spring MVC's defaults. Both
+     * are built from Boot's Jackson configuration, so the registered modules (Blackbird among
+     * them) and the spring.jackson settings apply to request and response bodies.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        converter.setSupportedMediaTypes(Arrays.asList(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_JSON_UTF8,
+            MediaType.TEXT_PLAIN
+        ));
+        return converter;
+    }
+
+    /**
+     * Compact binary encoding for clients sending or accepting application/cbor.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder jacksonBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                jacksonBuilder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Replaces reflective getter calls with LambdaMetafactory accessors for the response DTOs.
+     * Blackbird needs the Java 11 lookup API; on older runtimes Jackson stays reflective.
+     * Boot registers every Module bean with the application ObjectMapper and builder, which
+     * the HTTP converters are made from.
+     */
+    @Bean
+    @ConditionalOnJava(JavaVersion.ELEVEN)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder
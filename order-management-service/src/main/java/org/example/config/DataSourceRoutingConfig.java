@@ -0,0 +1,74 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits the single Postgres pool into a primary pool for writes and a replica pool for
+ * read-only transactions. Only active when app.datasource.replica.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(StringUtils.hasText(username) ? username : properties.determineUsername())
+                .password(StringUtils.hasText(password) ? password : properties.determinePassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                                 @Qualifier("replicaDataSource") DataSource replica) {
+        return new ReadWriteRoutingDataSource(primary, replica);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    @Lazy(false) // scheduled, so it must exist even with lazy initialization
+    public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource routingDataSource,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica.lag-query}") String lagQuery,
+                                               @Value("${app.datasource.replica.max-lag-ms:5000}") long maxLagMs) {
+        return new ReplicaLagMonitor(routingDataSource, new JdbcTemplate(replica), lagQuery, maxLagMs);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.config;
+
+import org.example.jfr.LogServiceCallEvent;
+import org.example.jfr.OrderProcessingTickEvent;
+import org.example.jfr.OrderServiceEvent;
+import org.example.support.jfr.ContinuousRecording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Continuous flight recording of the order events (app.jfr.*), dumped through /admin/jfr/dump.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecordingConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @Lazy(false) // the recording has to run from startup, not from the first dump request
+    public ContinuousRecording continuousRecording(@Value("${app.jfr.max-age:PT1H}") Duration maxAge,
+                                                   @Value("${app.jfr.max-size-bytes:268435456}") long maxSizeBytes,
+                                                   @Value("${app.jfr.service-threshold:PT0S}") Duration serviceThreshold,
+                                                   @Value("${app.jfr.dump-dir:/tmp/jfr}") String dumpDirectory) {
+        return new ContinuousRecording("order-management", maxAge, maxSizeBytes, Paths.get(dumpDirectory))
+                .enable(OrderProcessingTickEvent.class)
+                .enable(OrderServiceEvent.class, serviceThreshold)
+                .enable(LogServiceCallEvent.class);
+    }
+}
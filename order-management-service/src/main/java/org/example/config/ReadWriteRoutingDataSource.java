@@ -0,0 +1,47 @@
+package org.example.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and everything else
+ * to the primary. Must be wrapped in a LazyConnectionDataSourceProxy, otherwise the
+ * connection is fetched before the transaction is marked read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private volatile boolean replicaAvailable = true;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Target.PRIMARY, primary);
+        targets.put(Target.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public void setReplicaAvailable(boolean replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+}
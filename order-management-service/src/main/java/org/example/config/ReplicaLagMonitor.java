@@ -0,0 +1,47 @@
+package org.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures how far the replica is behind the primary and takes it out of
+ * rotation while the lag is above the configured limit or the replica cannot be reached.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagMs;
+
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource, JdbcTemplate replicaJdbcTemplate,
+                             String lagQuery, long maxLagMs) {
+        this.routingDataSource = routingDataSource;
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        boolean available;
+        try {
+            Number lagMs = replicaJdbcTemplate.queryForObject(lagQuery, Number.class);
+            available = lagMs != null && lagMs.longValue() <= maxLagMs;
+            if (!available) {
+                logger.warn("Replica lag {} ms exceeds {} ms, routing reads to primary", lagMs, maxLagMs);
+            }
+        } catch (Exception e) {
+            logger.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+            available = false;
+        }
+        if (available && !routingDataSource.isReplicaAvailable()) {
+            logger.info("Replica caught up, routing read-only transactions to replica again");
+        }
+        routingDataSource.setReplicaAvailable(available);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.config;
+
+/**
+ * The shard the current thread works on. Set by {@link ShardRouter} around a unit of work and
+ * read by {@link ShardRoutingDataSource} when a connection is fetched.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return the current shard, or null outside of {@link ShardRouter#onShard}
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
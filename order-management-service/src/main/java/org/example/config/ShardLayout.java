@@ -0,0 +1,51 @@
+package org.example.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pins each shard database to its place in app.sharding.urls. The first sharded start writes
+ * the shard index and count to shard_layout, later starts fail if the list changed, since the
+ * stored order ids would then route to the wrong database. A database with orders but no layout
+ * yet, e.g. the single database from before sharding was enabled, is only accepted if all its
+ * order ids already belong to its shard.
+ */
+final class ShardLayout {
+
+    private ShardLayout() {
+    }
+
+    static void verify(DataSource dataSource, int shard, int shardCount) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<Map<String, Object>> layout = jdbc.queryForList("SELECT shard_index, shard_count FROM shard_layout");
+        if (!layout.isEmpty()) {
+            for (Map<String, Object> row : layout) {
+                int storedShard = ((Number) row.get("shard_index")).intValue();
+                int storedCount = ((Number) row.get("shard_count")).intValue();
+                if (storedShard != shard || storedCount != shardCount) {
+                    throw new IllegalStateException("Shard " + shard + " of " + shardCount + " holds the orders of shard "
+                            + storedShard + " of " + storedCount + ", app.sharding.urls must not be reordered or resized"
+                            + " without moving the orders (see Sharding in the README)");
+                }
+            }
+            return;
+        }
+        long misplaced = countMisplaced(jdbc, "orders", shard, shardCount)
+                + countMisplaced(jdbc, "orders_archive", shard, shardCount);
+        if (misplaced > 0) {
+            throw new IllegalStateException("Shard " + shard + " of " + shardCount + " holds " + misplaced
+                    + " orders whose id belongs to another shard, move them before enabling this layout"
+                    + " (see Sharding in the README)");
+        }
+        jdbc.update("INSERT INTO shard_layout (shard_index, shard_count) VALUES (?, ?)", shard, shardCount);
+    }
+
+    private static long countMisplaced(JdbcTemplate jdbc, String table, int shard, int shardCount) {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE MOD(order_id, ?) <> ?",
+                Long.class, shardCount, shard);
+        return count != null ? count : 0;
+    }
+}
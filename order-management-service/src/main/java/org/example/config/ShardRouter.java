@@ -0,0 +1,139 @@
+package org.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard an order lives on and runs work there. A new order is placed by a hash
+ * of its customer name, and the shard is encoded in the order id (id mod shard count), so any
+ * later operation on the order is routed from the id alone. Without app.sharding.enabled there
+ * is a single shard and everything runs inline.
+ * <p>
+ * The shard count must not change once orders are stored, ids would map to the wrong shard;
+ * {@link ShardLayout} refuses to start when it did.
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    // Runs the per-shard work of onEachShard in parallel, absent with a single shard
+    private final ExecutorService fanOut;
+
+    @Autowired
+    public ShardRouter(@Value("${app.sharding.enabled:false}") boolean enabled,
+                       @Value("${app.sharding.urls:}") List<String> urls) {
+        if (enabled && urls.isEmpty()) {
+            throw new IllegalStateException("app.sharding.enabled requires app.sharding.urls");
+        }
+        this.shardCount = enabled ? urls.size() : 1;
+        this.fanOut = shardCount > 1
+                ? Executors.newFixedThreadPool(shardCount, new CustomizableThreadFactory("shard-"))
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOut != null) {
+            fanOut.shutdownNow();
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardOfCustomer(String customerName) {
+        int hash = Objects.hashCode(customerName);
+        // String.hashCode is stable across JVMs; spread the high bits so similar names scatter
+        return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+    }
+
+    public int shardOfOrder(long orderId) {
+        return (int) Math.floorMod(orderId, (long) shardCount);
+    }
+
+    /**
+     * Runs the work with the shard as current shard. Transactions must be started inside:
+     * a transaction already running keeps the connection of the shard it started on.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.current();
+        if (previous != null && previous != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch from shard " + previous + " to shard " + shard
+                    + " inside a transaction");
+        }
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * Runs the work on every shard, in parallel when there are several, and waits for all of
+     * them. If any failed, the first failure is rethrown after the others completed.
+     *
+     * @return the result of each shard, by shard
+     */
+    public <T> List<T> onEachShard(IntFunction<T> work) {
+        List<T> results = new ArrayList<>(shardCount);
+        if (fanOut == null) {
+            results.add(onShard(0, () -> work.apply(0)));
+            return results;
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(fanOut.submit(() -> onShard(target, () -> work.apply(target))));
+        }
+        RuntimeException failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+                }
+                results.add(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the shards", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * Splits items by the shard of their order id, shards in ascending order.
+     */
+    public <T> Map<Integer, List<T>> groupByShard(Collection<T> items, Function<T, Long> orderId) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardOfOrder(orderId.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+}
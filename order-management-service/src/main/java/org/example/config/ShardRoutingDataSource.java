@@ -0,0 +1,52 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends connections to the pool of the shard in {@link ShardContext}. Work outside of a shard,
+ * like Hibernate's schema validation at startup, goes to shard 0. Must be wrapped in a
+ * LazyConnectionDataSourceProxy so a transaction gets its connection from the shard that is
+ * current when it runs its first statement.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<HikariDataSource> shards;
+
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : 0;
+    }
+
+    public HikariDataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
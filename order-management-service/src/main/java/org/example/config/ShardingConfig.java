@@ -0,0 +1,98 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads orders over several databases, one pool per URL in app.sharding.urls, with the
+ * credentials of spring.datasource. Every shard has the full schema and its own id sequence;
+ * {@link ShardRouter} decides where each order goes. Only active when
+ * app.sharding.enabled=true, and not combined with the read replica routing.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                         @Value("${app.sharding.urls}") List<String> urls,
+                                                         @Value("${app.sharding.username:}") String username,
+                                                         @Value("${app.sharding.password:}") String password,
+                                                         @Value("${app.sharding.hikari.maximum-pool-size:10}") int maximumPoolSize,
+                                                         @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs,
+                                                         @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        if (replicaEnabled) {
+            throw new IllegalStateException("app.sharding.enabled cannot be combined with app.datasource.replica.enabled");
+        }
+        List<HikariDataSource> shards = new ArrayList<>(urls.size());
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls.get(shard).trim())
+                    .username(StringUtils.hasText(username) ? username : properties.determineUsername())
+                    .password(StringUtils.hasText(password) ? password : properties.determinePassword())
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            dataSource.setConnectionTimeout(connectionTimeoutMs);
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * Boot's Flyway only sees the primary DataSource, i.e. shard 0; run the same migrations on
+     * every shard before JPA validates the schema, then check that every database is still the
+     * shard it was first started as.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardedMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            int shardCount = shardRoutingDataSource.getShardCount();
+            for (int shard = 0; shard < shardCount; shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shardRoutingDataSource.getShard(shard))
+                        .load()
+                        .migrate();
+                ShardLayout.verify(shardRoutingDataSource.getShard(shard), shard, shardCount);
+            }
+        };
+    }
+
+    /**
+     * Spring holds the JDBC connection for the whole Hibernate session by default. With
+     * open-in-view, that session spans the request, so a request touching two shards would run
+     * the second shard's transaction on the first shard's connection. Releasing it after every
+     * transaction lets each transaction route again.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.controller;
+
+import org.example.dto.RecordingDumpResponse;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.ResourceNotFoundException;
+import org.example.support.jfr.ContinuousRecording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/admin/jfr")
+public class FlightRecordingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingController.class);
+
+    // Present unless app.jfr.enabled=false
+    private final Optional<ContinuousRecording> recording;
+
+    @Autowired
+    public FlightRecordingController(Optional<ContinuousRecording> recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Dumps the last {@code minutes} of the continuous recording to a file on the server for
+     * offline analysis in JDK Mission Control or with the jfr tool.
+     */
+    @PostMapping("/dump")
+    public ResponseEntity<RecordingDumpResponse> dump(@RequestParam(defaultValue = "10") long minutes)
+            throws IOException, JMException {
+        logger.info("REST request to dump the last {} minutes of the flight recording", minutes);
+        ContinuousRecording continuous = recording
+                .orElseThrow(() -> new ResourceNotFoundException("Flight recording is disabled (app.jfr.enabled=false)"));
+        long maxMinutes = continuous.getMaxAge().toMinutes();
+        if (minutes < 1 || minutes > maxMinutes) {
+            throw new InvalidRequestException("minutes must be between 1 and " + maxMinutes);
+        }
+        Path file = continuous.dump(Duration.ofMinutes(minutes));
+        return ResponseEntity.ok(new RecordingDumpResponse(file.toString(), minutes, Files.size(file)));
+    }
+}
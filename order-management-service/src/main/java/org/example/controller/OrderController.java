@@ -1,16 +1,32 @@
 package org.example.controller;
 
+import org.example.dto.BulkDeleteResponse;
+import org.example.dto.IntakeStatusResponse;
+import org.example.dto.OrderRequest;
+import org.example.dto.OrderResponse;
+import org.example.exception.InvalidRequestException;
+import org.example.exception.OrderVersionMismatchException;
 import org.example.exception.ResourceNotFoundException;
 import org.example.model.Order;
+import org.example.model.OrderStatus;
+import org.example.service.OrderBulkDeleteService;
+import org.example.service.OrderIntakeService;
+import org.example.service.OrderReadCoalescer;
 import org.example.service.OrderService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/orders")
@@ -19,36 +35,93 @@ public class OrderController {
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
     private final OrderService orderService;
+    private final OrderReadCoalescer orderReads;
+    private final OrderBulkDeleteService bulkDeleteService;
+    // Present when orders.intake.async.enabled is set
+    private final Optional<OrderIntakeService> intakeService;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           OrderReadCoalescer orderReads,
+                           OrderBulkDeleteService bulkDeleteService,
+                           Optional<OrderIntakeService> intakeService) {
         this.orderService = orderService;
+        this.orderReads = orderReads;
+        this.bulkDeleteService = bulkDeleteService;
+        this.intakeService = intakeService;
     }
 
+    /**
+     * In async intake mode the order is only journaled and queued: the response is 202 with the
+     * assigned id, and Location points at the intake status until the order is written.
+     */
     @PostMapping
-    public ResponseEntity<Long> createOrder(@Valid @RequestBody Order order) {
+    public ResponseEntity<Long> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
         logger.info("REST request to create a new order");
-        Long orderId = orderService.createOrder(order);
+        if (intakeService.isPresent()) {
+            Long orderId = intakeService.get().accept(orderRequest.toOrder());
+            return ResponseEntity.accepted().location(URI.create("/orders/intake/" + orderId)).body(orderId);
+        }
+        Long orderId = orderService.createOrder(orderRequest.toOrder());
         return new ResponseEntity<>(orderId, HttpStatus.CREATED);
     }
 
+    @GetMapping("/intake/{id}")
+    public ResponseEntity<IntakeStatusResponse> getIntakeStatus(@PathVariable Long id) {
+        OrderIntakeService intake = intakeService
+                .orElseThrow(() -> new ResourceNotFoundException("Order intake", "id", id));
+        OrderIntakeService.Status status = intake.getStatus(id);
+        switch (status) {
+            case UNKNOWN:
+                throw new ResourceNotFoundException("Order intake", "id", id);
+            case COMMITTED:
+                return ResponseEntity.ok().location(URI.create("/orders/" + id))
+                        .body(IntakeStatusResponse.of(id, status, null));
+            default:
+                return ResponseEntity.ok(IntakeStatusResponse.of(id, status, intake.getFailureReason(id)));
+        }
+    }
+
+    /**
+     * The order version is the ETag. A poller sending it back in If-None-Match gets a 304
+     * answered from the version column alone, without loading the order lines. Concurrent
+     * full reads of the same order share one load, see OrderReadCoalescer.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrder(@PathVariable Long id) {
+    public ResponseEntity<OrderResponse> getOrder(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("REST request to get Order with id: {}", id);
 
-        return orderService.getOrderById(id)
-                .map(order -> new ResponseEntity<>(order, HttpStatus.OK))
+        if (ifNoneMatch != null) {
+            Optional<Long> version = orderService.getOrderVersion(id);
+            if (version.isPresent() && matchesAny(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag(version.get())).build();
+            }
+        }
+        return orderReads.getOrder(id)
+                .map(order -> okWithETag(order.getVersion()).body(order))
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
     }
 
+    /**
+     * With If-Match the update only goes through while the order is still at that version,
+     * so concurrent writers get a 412 instead of silently overwriting each other.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Order> updateOrder(
+    public ResponseEntity<OrderResponse> updateOrder(
             @PathVariable Long id,
-            @Valid @RequestBody Order orderDetails) {
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody OrderRequest orderRequest) {
         logger.info("REST request to update Order with id: {}", id);
+        Order orderDetails = orderRequest.toOrder();
         orderDetails.setOrderId(id);
-        Order updatedOrder = orderService.updateOrder(id, orderDetails);
-        return new ResponseEntity<>(updatedOrder, HttpStatus.OK);
+        // null keeps the current priority
+        orderDetails.setPriority(orderRequest.getPriority());
+        Long expectedVersion = ifMatch == null || ifMatch.trim().equals("*") ? null : parseVersion(id, ifMatch);
+        Order updatedOrder = orderService.updateOrder(id, orderDetails, expectedVersion);
+        orderReads.invalidate(id);
+        return okWithETag(updatedOrder.getVersion()).body(OrderResponse.from(updatedOrder));
     }
 
     @DeleteMapping("/{id}")
@@ -56,6 +129,78 @@ public class OrderController {
         logger.info("REST request to delete Order with id: {}", id);
 
         orderService.deleteOrder(id);
+        orderReads.invalidate(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    /**
+     * Bulk purge, either of the listed ids or of every order in a status placed before a
+     * cutoff, e.g. DELETE /orders?status=failed&before=2024-01-01T00:00:00. Runs in chunks.
+     * Archived orders are not purged, the response counts the listed ids that were archived.
+     */
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResponse> deleteOrders(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = status != null || before != null;
+        if (byIds == byFilter) {
+            throw new InvalidRequestException("Either ids or status and before must be given");
+        }
+        if (byIds) {
+            logger.info("REST request to delete {} orders by id", ids.size());
+            int deleted = bulkDeleteService.deleteByIds(ids);
+            return ResponseEntity.ok(new BulkDeleteResponse(deleted, bulkDeleteService.countArchived(ids)));
+        }
+        if (status == null || before == null) {
+            throw new InvalidRequestException("Both status and before must be given");
+        }
+        OrderStatus orderStatus;
+        try {
+            orderStatus = OrderStatus.fromValue(status);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(e.getMessage());
+        }
+        logger.info("REST request to delete {} orders placed before {}", orderStatus.getValue(), before);
+        return ResponseEntity.ok(new BulkDeleteResponse(bulkDeleteService.deleteByStatusBefore(orderStatus, before), 0));
+    }
+
+    private static ResponseEntity.BodyBuilder okWithETag(Long version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        return version == null ? builder : builder.eTag(eTag(version));
+    }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static boolean matchesAny(String ifNoneMatch, Long version) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            // If-None-Match uses the weak comparison
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(eTag(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Long parseVersion(Long id, String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.valueOf(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through, a tag we never issued cannot match
+            }
+        }
+        throw new OrderVersionMismatchException(id, ifMatch);
+    }
 }
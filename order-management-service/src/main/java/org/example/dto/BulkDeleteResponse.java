@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.Value;
+
+/**
+ * Body of DELETE /orders: how many orders were actually removed, and how many of the requested
+ * ids belong to archived orders, which are read-only and were left in place.
+ */
+@Value
+public class BulkDeleteResponse {
+    int deleted;
+    int archived;
+}
@@ -0,0 +1,19 @@
+package org.example.dto;
+
+import lombok.Value;
+import org.example.service.OrderIntakeService;
+
+/**
+ * Body of GET /orders/intake/{id}: where an order accepted with 202 currently is.
+ * Once committed, the order itself is served by GET /orders/{id}.
+ */
+@Value
+public class IntakeStatusResponse {
+    Long orderId;
+    String status;
+    String message;
+
+    public static IntakeStatusResponse of(Long orderId, OrderIntakeService.Status status, String message) {
+        return new IntakeStatusResponse(orderId, status.name().toLowerCase(), message);
+    }
+}
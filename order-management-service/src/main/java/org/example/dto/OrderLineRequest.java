@@ -0,0 +1,37 @@
+package org.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.OrderLine;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class OrderLineRequest {
+
+    // Set when updating an existing line, left empty for new lines
+    private Long id;
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    @NotNull(message = "Price is required")
+    @Positive(message = "Price must be positive")
+    private BigDecimal price;
+
+    public OrderLine toOrderLine() {
+        OrderLine orderLine = new OrderLine();
+        orderLine.setId(id);
+        orderLine.setProductId(productId);
+        orderLine.setQuantity(quantity);
+        orderLine.setPrice(price);
+        return orderLine;
+    }
+}
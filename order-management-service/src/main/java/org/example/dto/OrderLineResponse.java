@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.Value;
+import org.example.model.OrderLine;
+
+import java.math.BigDecimal;
+
+@Value
+public class OrderLineResponse {
+    Long id;
+    Long productId;
+    Integer quantity;
+    BigDecimal price;
+
+    public static OrderLineResponse from(OrderLine orderLine) {
+        return new OrderLineResponse(orderLine.getId(), orderLine.getProductId(), orderLine.getQuantity(), orderLine.getPrice());
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Payload sent to order-processing-log-service for every processed order.
+ * Field names match OrderProcessingLog on the receiving side.
+ */
+@Data
+@NoArgsConstructor
+public class OrderLogRequest {
+    private Long orderId;
+    private String customerName;
+    private Instant date;
+    private Instant processedAt;
+    private Integer itemsCount;
+    private BigDecimal amount;
+    private Long processingTimeMs;
+    private Long queueWaitMs;
+    private Long processStageMs;
+    private Long logDelayMs;
+}
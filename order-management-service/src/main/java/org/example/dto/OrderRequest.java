@@ -0,0 +1,43 @@
+package org.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Order;
+import org.example.model.OrderPriority;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Body of POST and PUT /orders. Only the fields a client may set; id, status and
+ * timestamps are owned by the service. Without a priority, new orders are standard and
+ * updated orders keep theirs.
+ */
+@Data
+@NoArgsConstructor
+public class OrderRequest {
+
+    @NotBlank(message = "Customer name is required")
+    private String customerName;
+
+    private OrderPriority priority;
+
+    @Valid
+    private List<OrderLineRequest> orderLines = new ArrayList<>();
+
+    public Order toOrder() {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        if (priority != null) {
+            order.setPriority(priority);
+        }
+        if (orderLines != null) {
+            for (OrderLineRequest orderLine : orderLines) {
+                order.addOrderLine(orderLine.toOrderLine());
+            }
+        }
+        return order;
+    }
+}
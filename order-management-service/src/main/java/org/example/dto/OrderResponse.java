@@ -0,0 +1,38 @@
+package org.example.dto;
+
+import lombok.Value;
+import org.example.model.Order;
+import org.example.model.OrderLine;
+import org.example.model.OrderPriority;
+import org.example.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of an order returned by the API. Built once from the entity while its
+ * lines are loaded; serializing it never reaches back into Hibernate.
+ */
+@Value
+public class OrderResponse {
+    Long orderId;
+    Long version;
+    String customerName;
+    OrderStatus status;
+    OrderPriority priority;
+    LocalDateTime orderDate;
+    LocalDateTime claimedAt;
+    LocalDateTime processedAt;
+    List<OrderLineResponse> orderLines;
+
+    public static OrderResponse from(Order order) {
+        List<OrderLineResponse> orderLines = new ArrayList<>(order.getOrderLines().size());
+        for (OrderLine orderLine : order.getOrderLines()) {
+            orderLines.add(OrderLineResponse.from(orderLine));
+        }
+        return new OrderResponse(order.getOrderId(), order.getVersion(), order.getCustomerName(), order.getStatus(), order.getPriority(),
+                order.getOrderDate(), order.getClaimedAt(), order.getProcessedAt(), Collections.unmodifiableList(orderLines));
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.Value;
+
+/**
+ * Body of POST /admin/jfr/dump: where the flight recording excerpt was written on the server.
+ */
+@Value
+public class RecordingDumpResponse {
+    String file;
+    long minutes;
+    long sizeBytes;
+}
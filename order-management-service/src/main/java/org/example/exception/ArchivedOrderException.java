@@ -0,0 +1,12 @@
+package org.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ArchivedOrderException extends RuntimeException {
+
+    public ArchivedOrderException(Long orderId) {
+        super(String.format("Order %s is archived and can no longer be changed or deleted", orderId));
+    }
+}
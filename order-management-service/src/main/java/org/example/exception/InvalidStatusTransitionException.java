@@ -0,0 +1,12 @@
+package org.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    public InvalidStatusTransitionException(Long orderId, String from, String to) {
+        super(String.format("Order %s cannot move from status '%s' to '%s'", orderId, from, to));
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OrderIntakeFullException extends RuntimeException {
+
+    public OrderIntakeFullException(int capacity) {
+        super(String.format("Order intake queue is full (%d orders waiting), retry later", capacity));
+    }
+}
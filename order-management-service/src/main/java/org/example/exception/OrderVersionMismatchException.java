@@ -0,0 +1,17 @@
+package org.example.exception;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class OrderVersionMismatchException extends OptimisticLockingFailureException {
+
+    public OrderVersionMismatchException(Long orderId, Long expectedVersion, Long actualVersion) {
+        super(String.format("Order %s is at version %s, expected %s", orderId, actualVersion, expectedVersion));
+    }
+
+    public OrderVersionMismatchException(Long orderId, String entityTag) {
+        super(String.format("Order %s does not match entity tag %s", orderId, entityTag));
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.example.LogServiceCall")
+@Label("Log Service Call")
+@Category({"Order Management", "Log Service"})
+@Description("HTTP delivery of one order log to order-processing-log-service")
+public class LogServiceCallEvent extends Event {
+
+    @Label("Order Id")
+    public long orderId;
+
+    @Label("Outcome")
+    @Description("delivered, rejected (4xx, dropped) or failed (spilled for replay)")
+    public String outcome;
+
+    @Label("Replay")
+    public boolean replay;
+}
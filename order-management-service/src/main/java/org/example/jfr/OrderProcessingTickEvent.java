@@ -0,0 +1,20 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.example.OrderProcessingTick")
+@Label("Order Processing Tick")
+@Category({"Order Management", "Processing"})
+@Description("One run of the order processing scheduler")
+public class OrderProcessingTickEvent extends Event {
+
+    @Label("Orders Processed")
+    public int ordersProcessed;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,28 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.example.OrderService")
+@Label("Order Service Operation")
+@Category({"Order Management", "Service"})
+@Description("An OrderServiceImpl call, including the commit of its transaction")
+public class OrderServiceEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Order Id")
+    public long orderId;
+
+    @Label("Order Count")
+    @Description("Orders read or written by the operation")
+    public int orderCount;
+
+    public OrderServiceEvent(String operation) {
+        this.operation = operation;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.jfr;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Records an {@link OrderServiceEvent} around every {@link org.example.service.OrderService}
+ * call of OrderServiceImpl. Ordered before the transaction advice, so the event includes the
+ * commit. With sharding the routing ShardedOrderService is left out, the event is recorded
+ * once per call on the shard that ran it.
+ */
+@Aspect
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "app.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderServiceEventAspect {
+
+    @Around("execution(* org.example.service.OrderService.*(..)) && target(org.example.service.OrderServiceImpl)")
+    public Object record(ProceedingJoinPoint call) throws Throwable {
+        OrderServiceEvent event = new OrderServiceEvent(call.getSignature().getName());
+        Object[] args = call.getArgs();
+        if (args.length > 0 && args[0] instanceof Long) {
+            event.orderId = (Long) args[0];
+        }
+        event.begin();
+        try {
+            Object result = call.proceed();
+            if (result instanceof Long && event.orderId == 0) {
+                // createOrder, the id is only known afterwards
+                event.orderId = (Long) result;
+            }
+            event.orderCount = orderCount(result);
+            return result;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private static int orderCount(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        // A single order, its id or nothing: the call only returns after it found the order
+        return 1;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.model;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Processed order moved out of the live orders table by the archiver.
+ * Rows are only ever written by the archive move, never through JPA.
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive")
+@Data
+@NoArgsConstructor
+@ToString(exclude = "orderLines")
+@EqualsAndHashCode(exclude = "orderLines")
+public class ArchivedOrder implements Serializable {
+    private static final long serialVersionUID = 202508053L;
+
+    @Id
+    private Long orderId;
+
+    private Long version;
+
+    private String customerName;
+
+    @Convert(converter = OrderStatusConverter.class)
+    @Column(columnDefinition = "smallint")
+    private OrderStatus status;
+
+    @Convert(converter = OrderPriorityConverter.class)
+    @Column(nullable = false, columnDefinition = "smallint")
+    private OrderPriority priority;
+
+    private LocalDateTime orderDate;
+
+    private LocalDateTime archivedAt;
+
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", insertable = false, updatable = false)
+    private List<ArchivedOrderLine> orderLines = new ArrayList<>();
+
+    public Order toOrder() {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setVersion(version);
+        order.setCustomerName(customerName);
+        order.setStatus(status);
+        order.setPriority(priority);
+        order.setOrderDate(orderDate);
+        for (ArchivedOrderLine archivedLine : orderLines) {
+            OrderLine orderLine = new OrderLine();
+            orderLine.setId(archivedLine.getId());
+            orderLine.setProductId(archivedLine.getProductId());
+            orderLine.setQuantity(archivedLine.getQuantity());
+            orderLine.setPrice(archivedLine.getPrice());
+            orderLine.setOrderId(orderId);
+            orderLine.setOrder(order);
+            order.addOrderLine(orderLine);
+        }
+        return order;
+    }
+}
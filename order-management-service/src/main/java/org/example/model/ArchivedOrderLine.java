@@ -0,0 +1,32 @@
+package org.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@Entity
+@Immutable
+@Table(name = "order_lines_archive", indexes = {
+    @Index(name = "idx_order_lines_archive_order_id", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedOrderLine implements Serializable {
+    private static final long serialVersionUID = 202508054L;
+
+    @Id
+    private Long id;
+
+    private Long productId;
+
+    private Integer quantity;
+
+    private BigDecimal price;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+}
@@ -1,13 +1,12 @@
 package org.example.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonManagedReference;
-import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import javax.validation.Valid;
@@ -23,27 +22,47 @@ import java.util.List;
 @NoArgsConstructor
 @ToString(exclude = "orderLines")
 @EqualsAndHashCode(exclude = "orderLines") // <-- Prevents recursion
-@JsonIgnoreProperties(value = {"orderId"}, allowGetters = true)
 public class Order implements Serializable {
     private static final long serialVersionUID = 202508051L;
 
+    // Blocks of 50 ids per sequence call, shared with OrderIdAllocator (see V3__orders_id_sequence.sql);
+    // ids assigned by OrderIdAllocator before persist are kept
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id")
+    @GenericGenerator(name = "orders_id", strategy = "org.example.model.OrderIdGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "orders_id_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long orderId;
 
+    // Incremented on every update, doubles as the ETag of the order
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @NotBlank(message = "Customer name is required")
     private String customerName;
 
-    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
-    private String status = "unprocessed";
+    @Convert(converter = OrderStatusConverter.class)
+    @Column(nullable = false, columnDefinition = "smallint")
+    private OrderStatus status = OrderStatus.UNPROCESSED;
+
+    // Lane the processing scheduler takes the order from, see ProcessingLanes
+    @Convert(converter = OrderPriorityConverter.class)
+    @Column(nullable = false, columnDefinition = "smallint")
+    private OrderPriority priority = OrderPriority.STANDARD;
 
     @CreationTimestamp
     private LocalDateTime orderDate;
 
+    // When the processing scheduler picked the order up
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime processedAt;
+
     @OneToMany(fetch = FetchType.EAGER , mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Valid
-    @JsonManagedReference
     private List<OrderLine> orderLines = new ArrayList<>();
 
     //todo remove
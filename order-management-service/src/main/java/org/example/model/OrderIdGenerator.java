@@ -0,0 +1,19 @@
+package org.example.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.io.Serializable;
+
+/**
+ * The orders_id_seq generator, except that an id assigned before persist is kept. With
+ * sharding, ids come from OrderIdAllocator and carry the shard, see ShardRouter.
+ */
+public class OrderIdGenerator extends SequenceStyleGenerator {
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        Serializable assigned = session.getEntityPersister(null, object).getIdentifier(object, session);
+        return assigned != null ? assigned : super.generate(session, object);
+    }
+}
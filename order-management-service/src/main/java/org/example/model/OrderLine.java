@@ -1,10 +1,11 @@
 package org.example.model;
 
-import com.fasterxml.jackson.annotation.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -20,7 +21,6 @@ import java.math.BigDecimal;
 @ToString(exclude = "order")
 @NoArgsConstructor
 @EqualsAndHashCode(exclude = "order") // <-- Prevents recursion
-@JsonIgnoreProperties(value = {"order"}, allowSetters = true)//when serializing OrderLine, ignore the order field to prevent infinite recursion
 public class OrderLine implements Serializable {
     private static final long serialVersionUID = 202508052L;
 
@@ -44,9 +44,10 @@ public class OrderLine implements Serializable {
     @Column(name = "order_id", nullable = false, insertable = false, updatable = false)
     private Long orderId;
 
+    // Lines go with their order in the database (V5__order_lines_cascade_delete.sql)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
-    @JsonBackReference
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Order order;
 
 }
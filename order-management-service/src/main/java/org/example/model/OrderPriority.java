@@ -0,0 +1,50 @@
+package org.example.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Processing lane of an order. Stored as a smallint code (see OrderPriorityConverter) and
+ * exposed over the API by its lower case name. Lower codes are processed first within a tick.
+ */
+public enum OrderPriority {
+    EXPRESS((short) 0, "express"),
+    STANDARD((short) 1, "standard"),
+    BULK((short) 2, "bulk");
+
+    private final short code;
+    private final String value;
+
+    OrderPriority(short code, String value) {
+        this.code = code;
+        this.value = value;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public static OrderPriority fromCode(short code) {
+        for (OrderPriority priority : values()) {
+            if (priority.code == code) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order priority code: " + code);
+    }
+
+    @JsonCreator
+    public static OrderPriority fromValue(String value) {
+        for (OrderPriority priority : values()) {
+            if (priority.value.equalsIgnoreCase(value)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order priority: " + value);
+    }
+}
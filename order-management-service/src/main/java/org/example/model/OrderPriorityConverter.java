@@ -0,0 +1,18 @@
+package org.example.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class OrderPriorityConverter implements AttributeConverter<OrderPriority, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(OrderPriority priority) {
+        return priority == null ? null : priority.getCode();
+    }
+
+    @Override
+    public OrderPriority convertToEntityAttribute(Short code) {
+        return code == null ? null : OrderPriority.fromCode(code);
+    }
+}
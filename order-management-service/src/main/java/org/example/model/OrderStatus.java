@@ -0,0 +1,69 @@
+package org.example.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Lifecycle of an order. Stored as a smallint code (see OrderStatusConverter) and
+ * exposed over the API by its lower case name.
+ */
+public enum OrderStatus {
+    UNPROCESSED((short) 0, "unprocessed"),
+    PROCESSING((short) 1, "processing"),
+    PROCESSED((short) 2, "processed"),
+    FAILED((short) 3, "failed");
+
+    private final short code;
+    private final String value;
+
+    OrderStatus(short code, String value) {
+        this.code = code;
+        this.value = value;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Legal moves of the state machine. Processed and failed orders go back to
+     * unprocessed when they are edited or retried.
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        switch (this) {
+            case UNPROCESSED:
+                return next == PROCESSING;
+            case PROCESSING:
+                return next == PROCESSED || next == FAILED || next == UNPROCESSED;
+            case PROCESSED:
+            case FAILED:
+                return next == UNPROCESSED;
+            default:
+                return false;
+        }
+    }
+
+    public static OrderStatus fromCode(short code) {
+        for (OrderStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status code: " + code);
+    }
+
+    @JsonCreator
+    public static OrderStatus fromValue(String value) {
+        for (OrderStatus status : values()) {
+            if (status.value.equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status: " + value);
+    }
+}
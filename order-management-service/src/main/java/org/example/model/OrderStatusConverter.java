@@ -0,0 +1,18 @@
+package org.example.model;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : OrderStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.repository;
+
+import org.example.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads archived orders and performs the batched move out of the live tables.
+ * The move statements are native so rows are copied server side without loading entities.
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @Query("SELECT o.version FROM ArchivedOrder o WHERE o.orderId = :orderId")
+    Optional<Long> findVersionById(Long orderId);
+
+    long countByOrderIdIn(Collection<Long> orderIds);
+
+    @Query(value = "SELECT order_id FROM orders WHERE status = :status AND order_date < :cutoff "
+            + "ORDER BY order_id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockOrderIdsForArchive(short status, LocalDateTime cutoff, int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (order_id, version, customer_name, status, priority, order_date, archived_at) "
+            + "SELECT order_id, version, customer_name, status, priority, order_date, CURRENT_TIMESTAMP FROM orders "
+            + "WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyOrders(Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_lines_archive (id, product_id, quantity, price, order_id) "
+            + "SELECT id, product_id, quantity, price, order_id FROM order_lines "
+            + "WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyOrderLines(Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_lines WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteLiveOrderLines(Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteLiveOrders(Collection<Long> orderIds);
+}
@@ -0,0 +1,74 @@
+package org.example.repository;
+
+import org.example.model.Order;
+import org.example.model.OrderLine;
+import org.example.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plain JDBC batch inserts for orders that already carry their id. Used by the async intake
+ * writer to store many orders per statement round trip; with reWriteBatchedInserts the
+ * PostgreSQL driver turns each batch into multi-row INSERTs.
+ */
+@Repository
+public class OrderBatchRepository {
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (order_id, version, customer_name, status, priority, order_date) VALUES (?, 0, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_LINE =
+            "INSERT INTO order_lines (product_id, quantity, price, order_id) VALUES (?, ?, ?, ?)";
+
+    private static final int MAX_IN_LIST = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    public OrderBatchRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public void insertAll(List<Order> orders) {
+        List<OrderLine> lines = new ArrayList<>();
+        for (Order order : orders) {
+            lines.addAll(order.getOrderLines());
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER, orders, orders.size(), (ps, order) -> {
+            ps.setLong(1, order.getOrderId());
+            ps.setString(2, order.getCustomerName());
+            ps.setShort(3, OrderStatus.UNPROCESSED.getCode());
+            ps.setShort(4, order.getPriority().getCode());
+            ps.setTimestamp(5, Timestamp.valueOf(order.getOrderDate()));
+        });
+        jdbcTemplate.batchUpdate(INSERT_ORDER_LINE, lines, lines.size(), (ps, line) -> {
+            ps.setLong(1, line.getProductId());
+            ps.setInt(2, line.getQuantity());
+            ps.setBigDecimal(3, line.getPrice());
+            ps.setLong(4, line.getOrder().getOrderId());
+        });
+    }
+
+    public Set<Long> findExistingIds(Collection<Long> orderIds) {
+        Set<Long> existing = new HashSet<>();
+        List<Long> ids = new ArrayList<>(orderIds);
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IN_LIST));
+            existing.addAll(namedJdbcTemplate.queryForList(
+                    "SELECT order_id FROM orders WHERE order_id IN (:ids)",
+                    new MapSqlParameterSource("ids", chunk), Long.class));
+        }
+        return existing;
+    }
+}
@@ -1,15 +1,54 @@
 package org.example.repository;
 
 import org.example.model.Order;
+import org.example.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT o FROM Order o WHERE o.status = :status")
-    List<Order> findByStatus(String status);
+    List<Order> findByStatus(OrderStatus status);
+
+    // Reads the version column only, without touching the order lines
+    @Query("SELECT o.version FROM Order o WHERE o.orderId = :orderId")
+    Optional<Long> findVersionById(Long orderId);
+
+    /**
+     * The next page of one processing lane (OrderPriority code), oldest first, after the given id.
+     * The literal 0 is OrderStatus.UNPROCESSED and matches the predicate of the partial index
+     * idx_orders_unprocessed_priority, so the lookup only touches pending rows of the lane
+     * however large the table grows. The rows are locked until the calling transaction ends and
+     * rows another transaction holds are skipped, so concurrent schedulers never take the same
+     * order.
+     */
+    @Query(value = "SELECT * FROM orders WHERE status = 0 AND priority = :priority AND order_id > :afterId "
+            + "ORDER BY order_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Order> findUnprocessed(short priority, long afterId, int limit);
+
+    /**
+     * Single DELETE statement without loading the order; the order lines go through the
+     * ON DELETE CASCADE foreign key.
+     *
+     * @return the number of deleted orders, 0 if the id does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Order o WHERE o.orderId = :orderId")
+    int deleteOrderById(Long orderId);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.orderId IN :orderIds")
+    int deleteOrdersByIdIn(Collection<Long> orderIds);
+
+    @Query("SELECT o.orderId FROM Order o WHERE o.status = :status AND o.orderDate < :before ORDER BY o.orderId")
+    List<Long> findIdsByStatusBefore(OrderStatus status, LocalDateTime before, Pageable pageable);
 }
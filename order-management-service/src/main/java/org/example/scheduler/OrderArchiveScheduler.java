@@ -0,0 +1,36 @@
+package org.example.scheduler;
+
+import org.example.service.OrderArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Lazy(false) // the prod profile initializes beans lazily, scheduled tasks need an eager bean
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderArchiveScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveScheduler.class);
+
+    private final OrderArchiveService archiveService;
+
+    @Autowired
+    public OrderArchiveScheduler(OrderArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}",
+            initialDelayString = "${app.archive.initial-delay-ms:300000}")
+    public void archiveOrders() {
+        logger.info("Starting scheduled order archive task");
+        try {
+            archiveService.archiveProcessedOrders();
+        } catch (Exception e) {
+            logger.error("Error during scheduled order archiving: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,41 +1,74 @@
 package org.example.scheduler;
 
+import org.example.config.ShardRouter;
+import org.example.jfr.OrderProcessingTickEvent;
 import org.example.service.OrderService;
 import org.example.service.OrderProcessingLogClientService;
+import org.example.service.OrderReadCoalescer;
 import org.example.model.Order;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 @Component
+@Lazy(false) // the prod profile initializes beans lazily, scheduled tasks need an eager bean
 public class OrderProcessingScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderProcessingScheduler.class);
 
     private final OrderService orderService;
     private final OrderProcessingLogClientService logClientService;
+    private final ShardRouter shardRouter;
+    private final OrderReadCoalescer orderReads;
 
     @Autowired
-    public OrderProcessingScheduler(OrderService orderService, OrderProcessingLogClientService logClientService) {
+    public OrderProcessingScheduler(OrderService orderService, OrderProcessingLogClientService logClientService,
+                                    ShardRouter shardRouter, OrderReadCoalescer orderReads) {
         this.orderService = orderService;
         this.logClientService = logClientService;
+        this.shardRouter = shardRouter;
+        this.orderReads = orderReads;
     }
 
-    @Scheduled(fixedRate = 60000) // Run every 60 seconds
+    /**
+     * Processes every shard in parallel; a shard that fails does not hold up the others.
+     */
+    @Scheduled(fixedRateString = "${app.processing.interval-ms:60000}",
+            initialDelayString = "${app.processing.initial-delay-ms:0}")
     public void processOrders() {
         logger.info("Starting scheduled order processing task");
+        OrderProcessingTickEvent event = new OrderProcessingTickEvent();
+        event.begin();
+        try {
+            List<Integer> processed = shardRouter.onEachShard(this::processShard);
+            event.ordersProcessed = processed.stream().mapToInt(count -> Math.max(count, 0)).sum();
+            event.succeeded = processed.stream().allMatch(count -> count >= 0);
+            logger.info("Completed scheduled order processing task");
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * @return the number of processed orders, -1 if processing failed
+     */
+    private int processShard(int shard) {
         try {
             List<Order> processedOrders = orderService.processUnprocessedOrders();
             for (Order order : processedOrders) {
+                // Committed: pollers arriving from now on must not join a read of the old status
+                orderReads.invalidate(order.getOrderId());
                 logClientService.sendOrderLog(order);
             }
-            logger.info("Completed scheduled order processing task");
+            return processedOrders.size();
         } catch (Exception e) {
-            logger.error("Error during scheduled order processing: {}", e.getMessage(), e);
+            logger.error("Error during scheduled order processing of shard {}: {}", shard, e.getMessage(), e);
+            return -1;
         }
     }
 }
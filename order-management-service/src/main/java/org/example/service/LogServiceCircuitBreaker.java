@@ -0,0 +1,93 @@
+package org.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for calls to the log service. After the configured number of consecutive
+ * failures it opens and callers stop calling the service for the open period. Then a single
+ * probe call is let through (half-open): success closes the breaker, failure opens it again.
+ */
+public class LogServiceCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogServiceCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public LogServiceCircuitBreaker(int failureThreshold, long openMs) {
+        this(failureThreshold, openMs, System::nanoTime);
+    }
+
+    LogServiceCircuitBreaker(int failureThreshold, long openMs, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Whether a call may be made now. Moving from open to half-open hands out the probe, so a
+     * caller that gets true must report the outcome through recordSuccess or recordFailure.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                logger.info("Log service circuit half-open, probing");
+                state = State.HALF_OPEN;
+                return true;
+            default:
+                // The probe is still in flight
+                return false;
+        }
+    }
+
+    /**
+     * True while calls are being refused, without taking the half-open probe.
+     */
+    public synchronized boolean isRejecting() {
+        return state == State.HALF_OPEN
+                || state == State.OPEN && nanoClock.getAsLong() - openedAt < openNanos;
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Log service circuit closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                logger.warn("Log service circuit opened after {} consecutive failures", consecutiveFailures);
+            }
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            consecutiveFailures = 0;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
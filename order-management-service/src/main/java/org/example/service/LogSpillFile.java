@@ -0,0 +1,169 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.OrderLogRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Local buffer for order logs that could not be delivered, one JSON document per line.
+ * The file survives restarts, so logs spilled before a shutdown are replayed afterwards, and
+ * logs stay in it until they have been delivered.
+ */
+public class LogSpillFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSpillFile.class);
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    // guarded by this
+    private int pending;
+
+    public LogSpillFile(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.pending = countLines();
+        if (pending > 0) {
+            logger.info("{} spilled order logs waiting for replay in {}", pending, path);
+        }
+    }
+
+    public synchronized void append(List<OrderLogRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (OrderLogRequest request : requests) {
+                    writer.write(objectMapper.writeValueAsString(request));
+                    writer.newLine();
+                }
+            }
+            pending += requests.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill order logs to " + path, e);
+        }
+    }
+
+    public void append(OrderLogRequest request) {
+        append(Collections.singletonList(request));
+    }
+
+    /**
+     * Everything spilled so far, oldest first. The file is left as it is; once the logs are
+     * delivered the caller drops them with {@link #removeDelivered}, so a crash during delivery
+     * loses nothing.
+     */
+    public synchronized List<OrderLogRequest> readAll() {
+        if (pending == 0 || !Files.exists(path)) {
+            return Collections.emptyList();
+        }
+        List<OrderLogRequest> requests = new ArrayList<>(pending);
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                OrderLogRequest request = parse(line);
+                if (request != null) {
+                    requests.add(request);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled order logs from " + path, e);
+        }
+        return requests;
+    }
+
+    /**
+     * Drops the first count logs returned by {@link #readAll}, with any unreadable lines among
+     * them. Logs appended in the meantime are kept. The rest is written to a new file that
+     * replaces the old one in one atomic move, a crash leaves either of the two.
+     */
+    public synchronized void removeDelivered(int count) {
+        if (count == 0 || !Files.exists(path)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            int removed = 0;
+            int from = 0;
+            while (from < lines.size() && removed < count) {
+                if (parse(lines.get(from)) != null) {
+                    removed++;
+                }
+                from++;
+            }
+            List<String> remaining = new ArrayList<>();
+            for (String line : lines.subList(from, lines.size())) {
+                if (!line.isEmpty()) {
+                    remaining.add(line);
+                }
+            }
+            if (remaining.isEmpty()) {
+                Files.delete(path);
+            } else {
+                Path rewritten = path.resolveSibling(path.getFileName() + ".tmp");
+                try (FileChannel out = FileChannel.open(rewritten, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(
+                            (String.join(System.lineSeparator(), remaining) + System.lineSeparator())
+                                    .getBytes(StandardCharsets.UTF_8));
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    out.force(true);
+                }
+                Files.move(rewritten, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            pending = remaining.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove delivered order logs from " + path, e);
+        }
+    }
+
+    public synchronized int size() {
+        return pending;
+    }
+
+    private OrderLogRequest parse(String line) {
+        if (line.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(line, OrderLogRequest.class);
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable spilled order log: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private int countLines() {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
+            return (int) lines.filter(line -> !line.isEmpty()).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled order logs from " + path, e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.service;
+
+import org.example.config.ShardRouter;
+import org.example.model.OrderStatus;
+import org.example.repository.ArchivedOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves processed orders older than the configured age from orders/order_lines into
+ * orders_archive/order_lines_archive, so the live tables only hold the hot working set.
+ * Each batch is moved in its own short transaction and batches are spaced out to keep
+ * the load on the primary predictable. With sharding, the shards are archived in parallel,
+ * each into its own archive tables.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int olderThanDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseBetweenBatchesMs;
+
+    @Autowired
+    public OrderArchiveService(ArchivedOrderRepository archivedOrderRepository,
+                               ShardRouter shardRouter,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.archive.older-than-days:30}") int olderThanDays,
+                               @Value("${app.archive.batch-size:500}") int batchSize,
+                               @Value("${app.archive.max-batches-per-run:20}") int maxBatchesPerRun,
+                               @Value("${app.archive.pause-between-batches-ms:200}") long pauseBetweenBatchesMs) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.olderThanDays = olderThanDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatchesMs = pauseBetweenBatchesMs;
+    }
+
+    public int archiveProcessedOrders() {
+        return archiveProcessedOrdersBefore(LocalDateTime.now().minusDays(olderThanDays));
+    }
+
+    public int archiveProcessedOrdersBefore(LocalDateTime cutoff) {
+        int archived = shardRouter.onEachShard(shard -> archiveShard(cutoff)).stream().mapToInt(Integer::intValue).sum();
+        logger.info("Archived {} processed orders placed before {}", archived, cutoff);
+        return archived;
+    }
+
+    private int archiveShard(LocalDateTime cutoff) {
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> moveBatch(cutoff));
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseBetweenBatchesMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return archived;
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> orderIds = archivedOrderRepository.lockOrderIdsForArchive(OrderStatus.PROCESSED.getCode(), cutoff, batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        archivedOrderRepository.copyOrders(orderIds);
+        archivedOrderRepository.copyOrderLines(orderIds);
+        archivedOrderRepository.deleteLiveOrderLines(orderIds);
+        archivedOrderRepository.deleteLiveOrders(orderIds);
+        logger.debug("Moved {} orders to the archive", orderIds.size());
+        return orderIds.size();
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.service;
+
+import org.example.config.ShardRouter;
+import org.example.model.OrderStatus;
+import org.example.repository.ArchivedOrderRepository;
+import org.example.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Purges orders in chunks. Each chunk is a single DELETE on orders in its own short
+ * transaction; the order lines go with it through the ON DELETE CASCADE foreign key, so
+ * nothing is loaded into the persistence context and no lock is held across chunks. With
+ * sharding, ids are deleted on their own shard and status purges run on every shard.
+ * Archived orders are read-only and never purged here, listed ids of archived orders are skipped.
+ * Each committed chunk is invalidated in the OrderReadCoalescer, so later reads see the deletion.
+ */
+@Service
+public class OrderBulkDeleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBulkDeleteService.class);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ShardRouter shardRouter;
+    private final OrderReadCoalescer orderReads;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public OrderBulkDeleteService(OrderRepository orderRepository,
+                                  ArchivedOrderRepository archivedOrderRepository,
+                                  ShardRouter shardRouter,
+                                  OrderReadCoalescer orderReads,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.bulk-delete.chunk-size:1000}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.shardRouter = shardRouter;
+        this.orderReads = orderReads;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return the number of orders deleted; ids that do not exist or are archived are skipped
+     */
+    public int deleteByIds(Collection<Long> orderIds) {
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        int deleted = 0;
+        for (Map.Entry<Integer, List<Long>> shard : shardRouter.groupByShard(ids, Function.identity()).entrySet()) {
+            deleted += shardRouter.onShard(shard.getKey(), () -> deleteChunked(shard.getValue()));
+        }
+        logger.info("Deleted {} of {} requested orders", deleted, ids.size());
+        return deleted;
+    }
+
+    /**
+     * How many of the given ids belong to archived orders, which {@link #deleteByIds} leaves alone.
+     */
+    public int countArchived(Collection<Long> orderIds) {
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        long archived = 0;
+        for (Map.Entry<Integer, List<Long>> shard : shardRouter.groupByShard(ids, Function.identity()).entrySet()) {
+            archived += shardRouter.onShard(shard.getKey(), () -> countArchivedChunked(shard.getValue()));
+        }
+        return (int) archived;
+    }
+
+    private long countArchivedChunked(List<Long> ids) {
+        long archived = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            archived += archivedOrderRepository.countByOrderIdIn(ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+        }
+        return archived;
+    }
+
+    private int deleteChunked(List<Long> ids) {
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            deleted += transactionTemplate.execute(status -> orderRepository.deleteOrdersByIdIn(chunk));
+            chunk.forEach(orderReads::invalidate);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes every order in the given status placed before the cutoff.
+     */
+    public int deleteByStatusBefore(OrderStatus orderStatus, LocalDateTime before) {
+        int deleted = shardRouter.onEachShard(shard -> deleteShardByStatusBefore(orderStatus, before))
+                .stream().mapToInt(Integer::intValue).sum();
+        logger.info("Deleted {} {} orders placed before {}", deleted, orderStatus.getValue(), before);
+        return deleted;
+    }
+
+    private int deleteShardByStatusBefore(OrderStatus orderStatus, LocalDateTime before) {
+        int deleted = 0;
+        while (true) {
+            List<Long> chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = orderRepository.findIdsByStatusBefore(orderStatus, before, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    orderRepository.deleteOrdersByIdIn(ids);
+                }
+                return ids;
+            });
+            chunk.forEach(orderReads::invalidate);
+            int removed = chunk.size();
+            deleted += removed;
+            if (removed < chunkSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.service;
+
+import org.example.config.ShardContext;
+import org.example.config.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Hands out order ids without inserting anything. Every call to orders_id_seq reserves the
+ * block [value, value + BLOCK_SIZE - 1], the same pooled-lo scheme Hibernate uses for Order,
+ * so ids taken here and ids generated on persist never collide.
+ * <p>
+ * With several shards each shard has its own sequence and its own block here; the id is
+ * value * shard count + shard, so the shard can be told from the id. Must be called on the
+ * shard the order goes to.
+ */
+@Component
+public class OrderIdAllocator {
+
+    static final String SEQUENCE_NAME = "orders_id_seq";
+    // Must match INCREMENT BY of orders_id_seq and increment_size on Order.orderId
+    static final int BLOCK_SIZE = 50;
+
+    private final DataFieldMaxValueIncrementer sequence;
+    private final int shardCount;
+
+    // guarded by this, by shard
+    private final long[] next;
+    private final long[] blockEnd;
+
+    @Autowired
+    public OrderIdAllocator(DataSource dataSource, ShardRouter shardRouter) throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        if ("PostgreSQL".equals(product)) {
+            this.sequence = new PostgresSequenceMaxValueIncrementer(dataSource, SEQUENCE_NAME);
+        } else if ("H2".equals(product)) {
+            this.sequence = new H2SequenceMaxValueIncrementer(dataSource, SEQUENCE_NAME);
+        } else {
+            throw new IllegalStateException("No order id sequence support for " + product);
+        }
+        this.shardCount = shardRouter.getShardCount();
+        this.next = new long[shardCount];
+        this.blockEnd = new long[shardCount];
+    }
+
+    public synchronized long nextId() {
+        Integer current = ShardContext.current();
+        int shard = current != null ? current : 0;
+        if (next[shard] == blockEnd[shard]) {
+            next[shard] = sequence.nextLongValue();
+            blockEnd[shard] = next[shard] + BLOCK_SIZE;
+        }
+        return next[shard]++ * shardCount + shard;
+    }
+}
@@ -0,0 +1,307 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.dto.OrderLineRequest;
+import org.example.model.Order;
+import org.example.model.OrderLine;
+import org.example.model.OrderPriority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write-ahead journal of orders accepted by the async intake. An order is appended and forced
+ * to disk before the client gets its 202, and a done record is appended once the order is
+ * committed to the database (or rejected by it). After a crash, {@link #recover()} returns the
+ * orders without a done record. Concurrent appenders share fsyncs: one force covers every
+ * record written before it started.
+ */
+public class OrderIntakeJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeJournal.class);
+
+    enum Type {
+        ORDER, DONE
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class Entry {
+        private Type type;
+        private Long orderId;
+        private String customerName;
+        // null in records written before priorities existed
+        private OrderPriority priority;
+        private LocalDateTime orderDate;
+        private List<OrderLineRequest> orderLines;
+        private List<Long> orderIds;
+
+        static Entry of(Order order) {
+            Entry entry = new Entry();
+            entry.setType(Type.ORDER);
+            entry.setOrderId(order.getOrderId());
+            entry.setCustomerName(order.getCustomerName());
+            entry.setPriority(order.getPriority());
+            entry.setOrderDate(order.getOrderDate());
+            List<OrderLineRequest> lines = new ArrayList<>(order.getOrderLines().size());
+            for (OrderLine orderLine : order.getOrderLines()) {
+                OrderLineRequest line = new OrderLineRequest();
+                line.setProductId(orderLine.getProductId());
+                line.setQuantity(orderLine.getQuantity());
+                line.setPrice(orderLine.getPrice());
+                lines.add(line);
+            }
+            entry.setOrderLines(lines);
+            return entry;
+        }
+
+        static Entry done(Collection<Long> orderIds) {
+            Entry entry = new Entry();
+            entry.setType(Type.DONE);
+            entry.setOrderIds(new ArrayList<>(orderIds));
+            return entry;
+        }
+
+        Order toOrder() {
+            Order order = new Order();
+            order.setOrderId(orderId);
+            order.setCustomerName(customerName);
+            if (priority != null) {
+                order.setPriority(priority);
+            }
+            order.setOrderDate(orderDate);
+            for (OrderLineRequest line : orderLines) {
+                OrderLine orderLine = line.toOrderLine();
+                orderLine.setOrder(order);
+                order.addOrderLine(orderLine);
+            }
+            return order;
+        }
+    }
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final long compactAboveBytes;
+
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+
+    // guarded by writeLock; total bytes ever written, not reset when the file is compacted
+    private FileChannel channel;
+    private long written;
+    // guarded by writeLock; the records of the orders without a done record, in append order
+    private final Map<Long, byte[]> outstanding = new LinkedHashMap<>();
+    private long outstandingBytes;
+
+    // guarded by syncLock
+    private long synced;
+
+    public OrderIntakeJournal(Path path, ObjectMapper objectMapper, long compactAboveBytes) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.compactAboveBytes = compactAboveBytes;
+    }
+
+    /**
+     * Reads the journal, rewrites it with only the orders that are still outstanding and opens it
+     * for appending. A torn record at the end (crash in the middle of a write) is discarded; it was
+     * never acknowledged because the force had not completed.
+     */
+    public List<Order> recover() {
+        Map<Long, Entry> pending = new LinkedHashMap<>();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (Files.exists(path)) {
+                try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        Entry entry;
+                        try {
+                            entry = objectMapper.readValue(line, Entry.class);
+                        } catch (IOException e) {
+                            logger.warn("Ignoring incomplete record at the end of the intake journal {}", path);
+                            break;
+                        }
+                        if (entry.getType() == Type.ORDER) {
+                            pending.put(entry.getOrderId(), entry);
+                        } else {
+                            entry.getOrderIds().forEach(pending::remove);
+                        }
+                    }
+                }
+            }
+
+            synchronized (writeLock) {
+                for (Entry entry : pending.values()) {
+                    addOutstanding(entry.getOrderId(), encode(entry));
+                }
+                rewrite();
+                channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover intake journal " + path, e);
+        }
+
+        List<Order> orders = new ArrayList<>(pending.size());
+        for (Entry entry : pending.values()) {
+            orders.add(entry.toOrder());
+        }
+        return orders;
+    }
+
+    /**
+     * Appends the order and returns once it is on disk.
+     */
+    public void appendOrder(Order order) {
+        long end = write(Entry.of(order), order.getOrderId());
+        sync(end);
+    }
+
+    /**
+     * Marks orders as no longer needing replay. Not forced: after a crash the ids are checked
+     * against the database before anything is replayed.
+     */
+    public void appendDone(Collection<Long> orderIds) {
+        write(Entry.done(orderIds), null);
+        synchronized (writeLock) {
+            for (Long orderId : orderIds) {
+                byte[] record = outstanding.remove(orderId);
+                if (record != null) {
+                    outstandingBytes -= record.length;
+                }
+            }
+        }
+        compact();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (channel != null) {
+                channel.force(true);
+                channel.close();
+            }
+        }
+    }
+
+    private long write(Entry entry, Long newOrderId) {
+        byte[] record = encode(entry);
+        synchronized (writeLock) {
+            if (newOrderId != null) {
+                addOutstanding(newOrderId, record);
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write intake journal " + path, e);
+            }
+            written += record.length;
+            return written;
+        }
+    }
+
+    private void sync(long end) {
+        synchronized (syncLock) {
+            if (synced >= end) {
+                // Another thread's force already covered this record
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (writeLock) {
+                target = written;
+                current = channel;
+            }
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to sync intake journal " + path, e);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the outstanding orders once it grew past compactAboveBytes,
+     * so it does not grow forever even if the intake never drains completely. Skipped while at
+     * least half of the file is still outstanding, rewriting would hardly shrink it.
+     */
+    private void compact() {
+        // Same lock order as sync(), which must not force a channel closed here
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                try {
+                    long size = channel.size();
+                    if (size <= compactAboveBytes || size < 2 * outstandingBytes) {
+                        return;
+                    }
+                    rewrite();
+                    FileChannel previous = channel;
+                    channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                    previous.close();
+                    // The outstanding records were forced with the new file, done records need no force
+                    synced = written;
+                } catch (IOException e) {
+                    logger.warn("Failed to compact intake journal {}: {}", path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the journal file with the outstanding records. The new file is complete and on
+     * disk before it takes the place of the old one.
+     */
+    private void rewrite() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (byte[] record : outstanding.values()) {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void addOutstanding(Long orderId, byte[] record) {
+        byte[] previous = outstanding.put(orderId, record);
+        outstandingBytes += record.length - (previous != null ? previous.length : 0);
+    }
+
+    private byte[] encode(Entry entry) {
+        try {
+            return (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode intake journal entry", e);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.ShardRouter;
+import org.example.exception.OrderIntakeFullException;
+import org.example.model.Order;
+import org.example.model.OrderStatus;
+import org.example.repository.OrderBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Async order intake (orders.intake.async.enabled). An accepted order gets its id from a
+ * pre-allocated block, is forced to the local journal and queued; the caller gets a 202 right
+ * away. A single writer thread drains the queue and inserts whatever accumulated while the
+ * previous batch was being written in one transaction (group commit). Orders left in the
+ * journal by a crash are queued again at startup. With sharding, the id is taken on the
+ * customer's shard and each batch is written as one transaction per shard.
+ */
+@Service
+@Lazy(false) // journal recovery has to run at startup, not on the first request
+@ConditionalOnProperty(name = "orders.intake.async.enabled", havingValue = "true")
+public class OrderIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    public enum Status {
+        PENDING, COMMITTED, FAILED, UNKNOWN
+    }
+
+    private final OrderIdAllocator idAllocator;
+    private final OrderBatchRepository batchRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderIntakeJournal journal;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long retryBackoffMs;
+    private final int rememberedFailures;
+
+    private final BlockingQueue<Order> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    // guarded by itself; most recent failures with their reason
+    private final Map<Long, String> failures;
+    private final Counter committed;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public OrderIntakeService(OrderIdAllocator idAllocator,
+                              OrderBatchRepository batchRepository,
+                              ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${orders.intake.async.queue-capacity:10000}") int queueCapacity,
+                              @Value("${orders.intake.async.batch-size:500}") int batchSize,
+                              @Value("${orders.intake.async.retry-backoff-ms:1000}") long retryBackoffMs,
+                              @Value("${orders.intake.async.remembered-failures:10000}") int rememberedFailures,
+                              @Value("${orders.intake.async.journal-file:order-intake.journal}") String journalFile,
+                              @Value("${orders.intake.async.journal-compact-bytes:67108864}") long journalCompactBytes) {
+        this.idAllocator = idAllocator;
+        this.batchRepository = batchRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = new OrderIntakeJournal(Paths.get(journalFile), objectMapper, journalCompactBytes);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.retryBackoffMs = retryBackoffMs;
+        this.rememberedFailures = rememberedFailures;
+        this.failures = new LinkedHashMap<Long, String>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > OrderIntakeService.this.rememberedFailures;
+            }
+        };
+
+        Gauge.builder("orders.intake.queued", queued, AtomicInteger::get)
+                .description("Accepted orders waiting to be written")
+                .register(meterRegistry);
+        this.committed = Counter.builder("orders.intake.committed")
+                .description("Accepted orders written to the database")
+                .register(meterRegistry);
+        this.failed = Counter.builder("orders.intake.failed")
+                .description("Accepted orders the database refused")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.intake.batch.size")
+                .description("Orders written per group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        List<Order> recovered = journal.recover();
+        if (!recovered.isEmpty()) {
+            Set<Long> alreadyStored = findExistingIds(
+                    recovered.stream().map(Order::getOrderId).collect(Collectors.toList()));
+            if (!alreadyStored.isEmpty()) {
+                journal.appendDone(alreadyStored);
+            }
+            for (Order order : recovered) {
+                if (!alreadyStored.contains(order.getOrderId())) {
+                    enqueue(order);
+                }
+            }
+            logger.info("Recovered {} accepted orders from the intake journal, {} were already stored",
+                    recovered.size(), alreadyStored.size());
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "order-intake-writer");
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        // The writer drains the queue before exiting; whatever it cannot write stays in the journal
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+
+    /**
+     * Assigns the order its id and makes it durable in the journal. Throws
+     * OrderIntakeFullException when the queue is at capacity.
+     */
+    public Long accept(Order order) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            throw new OrderIntakeFullException(queueCapacity);
+        }
+        try {
+            order.setOrderId(shardRouter.onShard(shardRouter.shardOfCustomer(order.getCustomerName()),
+                    idAllocator::nextId));
+            order.setStatus(OrderStatus.UNPROCESSED);
+            order.setOrderDate(LocalDateTime.now());
+            order.getOrderLines().forEach(orderLine -> orderLine.setOrder(order));
+            journal.appendOrder(order);
+        } catch (RuntimeException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+        pending.add(order.getOrderId());
+        queue.add(order);
+        logger.debug("Accepted order {} for customer {}", order.getOrderId(), order.getCustomerName());
+        return order.getOrderId();
+    }
+
+    public Status getStatus(Long orderId) {
+        if (pending.contains(orderId)) {
+            return Status.PENDING;
+        }
+        synchronized (failures) {
+            if (failures.containsKey(orderId)) {
+                return Status.FAILED;
+            }
+        }
+        return findExistingIds(Collections.singletonList(orderId)).isEmpty()
+                ? Status.UNKNOWN : Status.COMMITTED;
+    }
+
+    public String getFailureReason(Long orderId) {
+        synchronized (failures) {
+            return failures.get(orderId);
+        }
+    }
+
+    private Set<Long> findExistingIds(List<Long> orderIds) {
+        Set<Long> existing = new HashSet<>();
+        shardRouter.groupByShard(orderIds, Function.identity()).forEach((shard, ids) ->
+                existing.addAll(shardRouter.onShard(shard, () -> batchRepository.findExistingIds(ids))));
+        return existing;
+    }
+
+    private void enqueue(Order order) {
+        queued.incrementAndGet();
+        pending.add(order.getOrderId());
+        queue.add(order);
+    }
+
+    private void writeLoop() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Order first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchSizes.record(batch.size());
+                for (Map.Entry<Integer, List<Order>> shard : shardRouter.groupByShard(batch, Order::getOrderId).entrySet()) {
+                    if (!shardRouter.onShard(shard.getKey(), () -> write(shard.getValue()))) {
+                        logger.warn("Stopping with up to {} accepted orders unwritten, they stay in the journal",
+                                batch.size() + queue.size());
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch, retrying while the database is unavailable. If the database refuses the
+     * batch, the orders are written one by one so a single bad order does not fail the rest.
+     *
+     * @return false if the service stopped before the batch could be written
+     */
+    private boolean write(List<Order> batch) {
+        List<Order> remaining = new ArrayList<>(batch);
+        boolean oneByOne = false;
+        while (!remaining.isEmpty()) {
+            try {
+                if (oneByOne) {
+                    writeOneByOne(remaining);
+                } else {
+                    transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(remaining));
+                    complete(remaining);
+                    remaining.clear();
+                }
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Batch of {} orders refused, writing them one by one: {}", remaining.size(), e.getMessage());
+                oneByOne = true;
+            } catch (Exception e) {
+                logger.warn("Writing {} accepted orders failed, retrying in {} ms: {}",
+                        remaining.size(), retryBackoffMs, e.getMessage());
+                if (!running) {
+                    return false;
+                }
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void writeOneByOne(List<Order> remaining) {
+        Iterator<Order> iterator = remaining.iterator();
+        while (iterator.hasNext()) {
+            Order order = iterator.next();
+            List<Order> single = Collections.singletonList(order);
+            try {
+                transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(single));
+                complete(single);
+            } catch (DataIntegrityViolationException e) {
+                logger.error("Order {} refused by the database: {}", order.getOrderId(), e.getMessage());
+                synchronized (failures) {
+                    failures.put(order.getOrderId(), e.getMostSpecificCause().getMessage());
+                }
+                failed.increment();
+                finish(single);
+            }
+            iterator.remove();
+        }
+    }
+
+    private void complete(List<Order> orders) {
+        committed.increment(orders.size());
+        finish(orders);
+    }
+
+    /**
+     * Bookkeeping after the outcome is settled, it must not fail: the caller would take the
+     * stored orders for unwritten ones and insert them again.
+     */
+    private void finish(List<Order> orders) {
+        List<Long> ids = orders.stream().map(Order::getOrderId).collect(Collectors.toList());
+        try {
+            journal.appendDone(ids);
+        } catch (RuntimeException e) {
+            // The orders stay outstanding in the journal, recovery finds the stored ones in the database
+            logger.error("Marking {} orders done in the journal failed, leaving them to recovery: {}",
+                    ids.size(), e.getMessage());
+        }
+        pending.removeAll(ids);
+        queued.addAndGet(-orders.size());
+    }
+}
@@ -1,44 +1,281 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dto.OrderLogRequest;
+import org.example.jfr.LogServiceCallEvent;
 import org.example.model.Order;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PreDestroy;
 import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Delivers order logs to order-processing-log-service without ever blocking the caller.
+ * Deliveries run on a small dedicated executor with a bounded queue (the bulkhead) behind a
+ * circuit breaker. Logs that cannot be delivered right away, because the breaker is open, the
+ * queue is full or the call failed, go to a local spill file and are replayed once the log
+ * service answers again.
+ */
 @Service
 public class OrderProcessingLogClientService {
     private static final Logger logger = LoggerFactory.getLogger(OrderProcessingLogClientService.class);
 
-    @Value("http://order-processing-log-service:8090/logs")
-    private String logServiceUrl;
+    private final String logServiceUrl;
+    private final MediaType wireFormat;
+    private final RestTemplate restTemplate;
+    private final ThreadPoolExecutor executor;
+    private final LogServiceCircuitBreaker circuitBreaker;
+    private final LogSpillFile spillFile;
+    private final AtomicBoolean replayRunning = new AtomicBoolean();
+    private final Counter spilled;
+    private final Counter replayed;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    public OrderProcessingLogClientService(RestTemplateBuilder restTemplateBuilder,
+                                           ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${log.service.url}") String logServiceUrl,
+                                           // application/cbor by default, application/json to fall back to the text format
+                                           @Value("${log.service.wire-format:application/cbor}") MediaType wireFormat,
+                                           @Value("${log.client.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                           @Value("${log.client.read-timeout-ms:2000}") long readTimeoutMs,
+                                           @Value("${log.client.threads:2}") int threads,
+                                           @Value("${log.client.queue-capacity:1000}") int queueCapacity,
+                                           @Value("${log.client.breaker.failure-threshold:5}") int failureThreshold,
+                                           @Value("${log.client.breaker.open-ms:30000}") long openMs,
+                                           @Value("${log.client.spill-file:order-log-spill.jsonl}") String spillFile) {
+        this.logServiceUrl = logServiceUrl;
+        this.wireFormat = wireFormat;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("log-client-"));
+        this.circuitBreaker = new LogServiceCircuitBreaker(failureThreshold, openMs);
+        this.spillFile = new LogSpillFile(Paths.get(spillFile), objectMapper);
 
+        this.spilled = Counter.builder("order.logs.client.spilled")
+                .description("Order logs written to the spill file instead of being delivered")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("order.logs.client.replayed")
+                .description("Spilled order logs delivered after the log service recovered")
+                .register(meterRegistry);
+        Gauge.builder("order.logs.client.queued", executor, e -> e.getQueue().size())
+                .description("Order logs waiting for a delivery thread")
+                .register(meterRegistry);
+        Gauge.builder("order.logs.client.spill.size", this.spillFile, LogSpillFile::size)
+                .description("Order logs waiting in the spill file")
+                .register(meterRegistry);
+        Gauge.builder("order.logs.client.circuit.state", circuitBreaker, b -> b.getState().ordinal())
+                .description("Log service circuit state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hands the log of a processed order to the delivery executor and returns immediately.
+     */
     public void sendOrderLog(Order order) {
+        OrderLogRequest request = toLogRequest(order);
+        if (circuitBreaker.isRejecting()) {
+            spill(request);
+            return;
+        }
+        try {
+            executor.execute(new Delivery(request));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Log delivery queue full, spilling log for order {}", request.getOrderId());
+            spill(request);
+        }
+    }
+
+    /**
+     * Replays spilled logs on the delivery executor once the breaker lets calls through again.
+     */
+    @Scheduled(fixedDelayString = "${log.client.replay-interval-ms:10000}")
+    public void replaySpilledLogs() {
+        if (spillFile.size() == 0 || circuitBreaker.isRejecting() || !replayRunning.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            Map<String, Object> logPayload = new HashMap<>();
-            logPayload.put("orderId", order.getOrderId());
-            logPayload.put("customerName", order.getCustomerName());
-            logPayload.put("date", order.getOrderDate() != null ? order.getOrderDate().atZone(ZoneOffset.UTC).toInstant() : LocalDateTime.now().atZone(ZoneOffset.UTC).toInstant());
-            int itemsCount = order.getOrderLines() != null ? order.getOrderLines().stream().mapToInt(ol -> ol.getQuantity()).sum() : 0;
-            logPayload.put("itemsCount", itemsCount);
-            BigDecimal amount = order.getOrderLines() != null ? order.getOrderLines().stream().map(ol -> ol.getPrice().multiply(BigDecimal.valueOf(ol.getQuantity()))).reduce(BigDecimal.ZERO, BigDecimal::add) : BigDecimal.ZERO;
-            logPayload.put("amount", amount);
-            // Optionally add processingTimeMs if available
-            ResponseEntity<String> response = restTemplate.postForEntity(logServiceUrl, logPayload, String.class);
-            logger.info("Logged order {} to log service. Response: {}", order.getOrderId(), response.getStatusCode());
+            executor.execute(this::replay);
+        } catch (RejectedExecutionException e) {
+            replayRunning.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        List<OrderLogRequest> undelivered = new ArrayList<>();
+        for (Runnable task : executor.shutdownNow()) {
+            if (task instanceof Delivery) {
+                undelivered.add(((Delivery) task).request);
+            }
+        }
+        if (!undelivered.isEmpty()) {
+            logger.info("Spilling {} undelivered order logs on shutdown", undelivered.size());
+            spillFile.append(undelivered);
+        }
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void replay() {
+        int delivered = 0;
+        try {
+            List<OrderLogRequest> requests = spillFile.readAll();
+            logger.info("Replaying {} spilled order logs", requests.size());
+            for (OrderLogRequest request : requests) {
+                if (!circuitBreaker.allowRequest() || !post(request, true)) {
+                    logger.info("Log service unavailable again, {} order logs stay spilled", requests.size() - delivered);
+                    break;
+                }
+                delivered++;
+                replayed.increment();
+            }
         } catch (Exception e) {
-            logger.error("Failed to log order {} to log service: {}", order.getOrderId(), e.getMessage());
+            logger.error("Replaying spilled order logs failed: {}", e.getMessage(), e);
+        } finally {
+            try {
+                // If this fails the delivered logs stay spilled and are sent again, the log service drops duplicates
+                spillFile.removeDelivered(delivered);
+            } catch (Exception e) {
+                logger.error("Removing replayed order logs from the spill file failed: {}", e.getMessage(), e);
+            }
+            replayRunning.set(false);
+        }
+    }
+
+    /**
+     * @return false if the call failed in a way worth retrying later
+     */
+    private boolean post(OrderLogRequest logRequest, boolean replay) {
+        LogServiceCallEvent event = new LogServiceCallEvent();
+        event.orderId = logRequest.getOrderId() != null ? logRequest.getOrderId() : 0;
+        event.replay = replay;
+        event.begin();
+        try {
+            addDeliveryTimings(logRequest, Instant.now());
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(wireFormat);
+            restTemplate.postForEntity(logServiceUrl, new HttpEntity<>(logRequest, headers), Void.class);
+            circuitBreaker.recordSuccess();
+            event.outcome = "delivered";
+            logger.debug("Logged order {} to log service", logRequest.getOrderId());
+            return true;
+        } catch (HttpClientErrorException e) {
+            // The service is up but refuses this payload, retrying will not help
+            circuitBreaker.recordSuccess();
+            event.outcome = "rejected";
+            logger.error("Log service rejected log for order {}: {}", logRequest.getOrderId(), e.getStatusCode());
+            return true;
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            event.outcome = "failed";
+            logger.warn("Failed to log order {} to log service: {}", logRequest.getOrderId(), e.getMessage());
+            return false;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private void spill(OrderLogRequest request) {
+        try {
+            spillFile.append(request);
+            spilled.increment();
+        } catch (Exception e) {
+            logger.error("Dropping log for order {}, spill file not writable: {}", request.getOrderId(), e.getMessage());
+        }
+    }
+
+    private class Delivery implements Runnable {
+        private final OrderLogRequest request;
+
+        Delivery(OrderLogRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            if (!circuitBreaker.allowRequest() || !post(request, false)) {
+                spill(request);
+            }
         }
     }
-}
 
+    static OrderLogRequest toLogRequest(Order order) {
+        OrderLogRequest logRequest = new OrderLogRequest();
+        logRequest.setOrderId(order.getOrderId());
+        logRequest.setCustomerName(order.getCustomerName());
+        LocalDateTime date = order.getOrderDate() != null ? order.getOrderDate()
+                : order.getProcessedAt() != null ? order.getProcessedAt() : LocalDateTime.now();
+        // The order timestamps are LocalDateTime.now() of this JVM, the delivery timings compare them with Instant.now()
+        logRequest.setDate(date.atZone(ZoneId.systemDefault()).toInstant());
+        if (order.getProcessedAt() != null) {
+            logRequest.setProcessedAt(order.getProcessedAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        int itemsCount = order.getOrderLines() != null ? order.getOrderLines().stream().mapToInt(ol -> ol.getQuantity()).sum() : 0;
+        logRequest.setItemsCount(itemsCount);
+        BigDecimal amount = order.getOrderLines() != null ? order.getOrderLines().stream().map(ol -> ol.getPrice().multiply(BigDecimal.valueOf(ol.getQuantity()))).reduce(BigDecimal.ZERO, BigDecimal::add) : BigDecimal.ZERO;
+        logRequest.setAmount(amount);
+        addStageTimings(logRequest, order);
+        return logRequest;
+    }
+
+    /**
+     * Time spent in the stages before delivery: waiting in the queue (created to claimed) and
+     * processing (claimed to processed).
+     */
+    private static void addStageTimings(OrderLogRequest logRequest, Order order) {
+        if (order.getOrderDate() != null && order.getClaimedAt() != null) {
+            logRequest.setQueueWaitMs(millisBetween(order.getOrderDate(), order.getClaimedAt()));
+        }
+        if (order.getClaimedAt() != null && order.getProcessedAt() != null) {
+            logRequest.setProcessStageMs(millisBetween(order.getClaimedAt(), order.getProcessedAt()));
+        }
+    }
+
+    /**
+     * Delivery to the log service (processed to sent) and the end-to-end time from creation to
+     * sending, taken right before the call. A log that waited in the delivery queue or the spill
+     * file counts that wait as delivery time, not the moment it was handed over.
+     */
+    static void addDeliveryTimings(OrderLogRequest logRequest, Instant sentAt) {
+        if (logRequest.getDate() != null) {
+            logRequest.setProcessingTimeMs(Duration.between(logRequest.getDate(), sentAt).toMillis());
+        }
+        if (logRequest.getProcessedAt() != null) {
+            logRequest.setLogDelayMs(Duration.between(logRequest.getProcessedAt(), sentAt).toMillis());
+        }
+    }
+
+    private static long millisBetween(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMillis();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Single-flight reads of one order. When many clients poll the same order at once, e.g. right
+ * after its status changed, concurrent GETs for the id share one {@link OrderService#getOrderById}
+ * call and the response built from it instead of each loading the order. The load runs in its
+ * own transaction, the shared {@link OrderResponse} is immutable and detached from Hibernate.
+ * Writes through the API, the processing scheduler and bulk deletes make later reads load again
+ * rather than join a load that may predate them. Disabled with orders.read-coalescing.enabled=false.
+ */
+@Service
+public class OrderReadCoalescer {
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final SingleFlight<Long, Optional<OrderResponse>> reads = new SingleFlight<>();
+    private final Counter coalesced;
+
+    @Autowired
+    public OrderReadCoalescer(OrderService orderService,
+                              MeterRegistry meterRegistry,
+                              @Value("${orders.read-coalescing.enabled:true}") boolean enabled) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.coalesced = Counter.builder("orders.read.coalesced")
+                .description("Order reads answered by a load already in flight for the same id")
+                .register(meterRegistry);
+    }
+
+    public Optional<OrderResponse> getOrder(Long id) {
+        if (!enabled) {
+            return load(id);
+        }
+        return reads.execute(id, () -> load(id), coalesced::increment);
+    }
+
+    /**
+     * Called after the order was changed or deleted.
+     */
+    public void invalidate(Long id) {
+        reads.forget(id);
+    }
+
+    private Optional<OrderResponse> load(Long id) {
+        return orderService.getOrderById(id).map(OrderResponse::from);
+    }
+}
@@ -10,8 +10,12 @@ public interface OrderService {
 
     Optional<Order> getOrderById(Long id);
 
+    Optional<Long> getOrderVersion(Long id);
+
     Order updateOrder(Long id, Order orderDetails);
 
+    Order updateOrder(Long id, Order orderDetails, Long expectedVersion);
+
     void deleteOrder(Long id);
 
     List<Order> processUnprocessedOrders();
@@ -1,8 +1,14 @@
 package org.example.service;
 
+import org.example.exception.ArchivedOrderException;
+import org.example.exception.InvalidStatusTransitionException;
+import org.example.exception.OrderVersionMismatchException;
 import org.example.exception.ResourceNotFoundException;
+import org.example.model.ArchivedOrder;
 import org.example.model.Order;
 import org.example.model.OrderLine;
+import org.example.model.OrderStatus;
+import org.example.repository.ArchivedOrderRepository;
 import org.example.repository.OrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +17,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -22,13 +30,18 @@ public class OrderServiceImpl implements OrderService {
     private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
 
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ProcessingLanes processingLanes;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository) {
+    public OrderServiceImpl(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                            ProcessingLanes processingLanes) {
         this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.processingLanes = processingLanes;
     }
 
     @Override
@@ -47,23 +60,54 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public Optional<Order> getOrderById(Long id) {
         logger.info("Fetching order with id: {}", id);
-        return orderRepository.findById(id);
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isPresent()) {
+            return order;
+        }
+        // Processed orders are moved out of the live tables after a while
+        return archivedOrderRepository.findById(id).map(ArchivedOrder::toOrder);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getOrderVersion(Long id) {
+        Optional<Long> version = orderRepository.findVersionById(id);
+        if (version.isPresent()) {
+            return version;
+        }
+        return archivedOrderRepository.findVersionById(id);
     }
 
     @Override
     @Transactional
     public Order updateOrder(Long id, Order orderDetails) {
+        return updateOrder(id, orderDetails, null);
+    }
+
+    @Override
+    @Transactional
+    public Order updateOrder(Long id, Order orderDetails, Long expectedVersion) {
         logger.info("Updating order with id: {}", id);
 
         Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
+                .orElseThrow(() -> notFoundOrArchived(id));
+
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw new OrderVersionMismatchException(id, expectedVersion, order.getVersion());
+        }
+        // Line-only edits don't dirty the order row, force the bump so the ETag changes
+        entityManager.lock(order, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
 
         if(orderDetails.getCustomerName() != null || !orderDetails.getCustomerName().isEmpty()) {
             order.setCustomerName(orderDetails.getCustomerName());
         }
 
-        if(orderDetails.getStatus() != null && !orderDetails.getStatus().isEmpty()){
-            order.setStatus(orderDetails.getStatus());
+        if (orderDetails.getPriority() != null) {
+            order.setPriority(orderDetails.getPriority());
+        }
+
+        if(orderDetails.getStatus() != null && orderDetails.getStatus() != order.getStatus()){
+            transition(order, orderDetails.getStatus());
         }
 
         // Collect order lines to remove in a separate list
@@ -82,9 +126,9 @@ public class OrderServiceImpl implements OrderService {
         // Handle order lines update logic if needed
         orderDetails.getOrderLines().forEach(requestdOrderLine -> {
             if(requestdOrderLine.getId() == null) {
-                // If the order line ID is null, it means it's a new order line
-                //requestdOrderLine.setOrder(order);
-                requestdOrderLine.setOrderId(order.getOrderId());
+                // If the order line ID is null, it means it's a new order line.
+                // order_id is written through the association, the orderId column is read-only
+                requestdOrderLine.setOrder(order);
                 order.getOrderLines().add(requestdOrderLine);
 
             } else {
@@ -104,7 +148,8 @@ public class OrderServiceImpl implements OrderService {
 
         //entityManager.flush();
         // Remove after iteration
-        return orderRepository.save(order);
+        // Flush so the returned order carries the incremented version
+        return orderRepository.saveAndFlush(order);
     }
 
     @Override
@@ -112,17 +157,26 @@ public class OrderServiceImpl implements OrderService {
     public void deleteOrder(Long id) {
         logger.info("Deleting order with id: {}", id);
 
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
+        if (orderRepository.deleteOrderById(id) == 0) {
+            throw notFoundOrArchived(id);
+        }
+    }
 
-        orderRepository.delete(order);
+    /**
+     * Archived orders stay readable but are final, writes to them are a conflict rather than a 404.
+     */
+    private RuntimeException notFoundOrArchived(Long id) {
+        if (archivedOrderRepository.existsById(id)) {
+            return new ArchivedOrderException(id);
+        }
+        return new ResourceNotFoundException("Order", "id", id);
     }
 
     @Override
     @Transactional
     public List<Order> processUnprocessedOrders() {
         logger.info("Processing unprocessed orders");
-        List<Order> unprocessedOrders = orderRepository.findByStatus("unprocessed");
+        List<Order> unprocessedOrders = processingLanes.nextBatch();
 
         if (unprocessedOrders.isEmpty()) {
             logger.info("No unprocessed orders found");
@@ -131,11 +185,30 @@ public class OrderServiceImpl implements OrderService {
 
         logger.info("Found {} unprocessed orders", unprocessedOrders.size());
 
+        // nextBatch locked the rows: until this transaction ends other scheduler instances skip
+        // them. claimedAt is when the batch was taken, the processing stage of an order runs from
+        // there to its processedAt. PROCESSING is only a step inside this transaction, it commits
+        // together with PROCESSED.
+        LocalDateTime claimedAt = LocalDateTime.now();
         for (Order order : unprocessedOrders) {
-            order.setStatus("processed");
+            transition(order, OrderStatus.PROCESSING);
+            order.setClaimedAt(claimedAt);
+        }
+
+        for (Order order : unprocessedOrders) {
+            transition(order, OrderStatus.PROCESSED);
+            order.setProcessedAt(LocalDateTime.now());
             orderRepository.save(order);
+            processingLanes.recordProcessed(order);
             logger.info("Updated order {} to processed status", order.getOrderId());
         }
         return unprocessedOrders;
     }
+
+    private void transition(Order order, OrderStatus next) {
+        if (!order.getStatus().canTransitionTo(next)) {
+            throw new InvalidStatusTransitionException(order.getOrderId(), order.getStatus().getValue(), next.getValue());
+        }
+        order.setStatus(next);
+    }
 }
@@ -0,0 +1,145 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.model.Order;
+import org.example.model.OrderPriority;
+import org.example.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the capacity of a processing tick between the priority lanes by weight, so a large
+ * bulk backlog cannot push express orders into later ticks. Capacity a lane leaves unused, because
+ * it has fewer pending orders than its share, goes to the lanes that still have some, again by
+ * weight. Records the time from creation to processing of every order per lane.
+ */
+@Component
+public class ProcessingLanes {
+
+    private final OrderRepository orderRepository;
+    private final int tickCapacity;
+    private final int[] weights;
+    private final Map<OrderPriority, Timer> latency = new EnumMap<>(OrderPriority.class);
+
+    @Autowired
+    public ProcessingLanes(OrderRepository orderRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.processing.tick-capacity:5000}") int tickCapacity,
+                           @Value("${app.processing.lanes.express.weight:6}") int expressWeight,
+                           @Value("${app.processing.lanes.standard.weight:3}") int standardWeight,
+                           @Value("${app.processing.lanes.bulk.weight:1}") int bulkWeight) {
+        if (tickCapacity < 1 || expressWeight < 1 || standardWeight < 1 || bulkWeight < 1) {
+            throw new IllegalArgumentException("Processing tick capacity and lane weights must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.tickCapacity = tickCapacity;
+        this.weights = new int[]{expressWeight, standardWeight, bulkWeight};
+        for (OrderPriority priority : OrderPriority.values()) {
+            latency.put(priority, Timer.builder("orders.processing.latency")
+                    .description("Time from creation to processing of an order, per priority lane")
+                    .tag("lane", priority.getValue())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * The pending orders of this tick, express first, each lane oldest first. At most
+     * app.processing.tick-capacity orders; the rest stay queued for the next tick. Must run in
+     * the transaction that processes the batch: the rows stay locked until it ends, and other
+     * scheduler instances skip them.
+     */
+    public List<Order> nextBatch() {
+        OrderPriority[] lanes = OrderPriority.values();
+        List<List<Order>> claimed = new ArrayList<>(lanes.length);
+        long[] after = new long[lanes.length];
+        boolean[] open = new boolean[lanes.length];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            claimed.add(new ArrayList<>());
+            after[lane] = -1;
+            open[lane] = true;
+        }
+
+        int remaining = tickCapacity;
+        while (remaining > 0) {
+            int[] quotas = quotas(remaining, weights, open);
+            boolean anyOpen = false;
+            for (int lane = 0; lane < lanes.length; lane++) {
+                if (quotas[lane] == 0) {
+                    continue;
+                }
+                List<Order> page = orderRepository.findUnprocessed(lanes[lane].getCode(), after[lane], quotas[lane]);
+                claimed.get(lane).addAll(page);
+                remaining -= page.size();
+                if (page.size() < quotas[lane]) {
+                    // Drained, its unused share goes to the other lanes in the next round
+                    open[lane] = false;
+                } else {
+                    after[lane] = page.get(page.size() - 1).getOrderId();
+                    anyOpen = true;
+                }
+            }
+            if (!anyOpen) {
+                break;
+            }
+        }
+
+        List<Order> batch = new ArrayList<>(tickCapacity - remaining);
+        claimed.forEach(batch::addAll);
+        return batch;
+    }
+
+    public void recordProcessed(Order order) {
+        if (order.getOrderDate() != null && order.getProcessedAt() != null) {
+            latency.get(order.getPriority()).record(Duration.between(order.getOrderDate(), order.getProcessedAt()));
+        }
+    }
+
+    /**
+     * Largest remainder split of the capacity over the open lanes, proportional to their weight.
+     * The quotas add up to the capacity as long as one lane is open.
+     */
+    static int[] quotas(int capacity, int[] weights, boolean[] open) {
+        int[] quotas = new int[weights.length];
+        long totalWeight = 0;
+        for (int lane = 0; lane < weights.length; lane++) {
+            if (open[lane]) {
+                totalWeight += weights[lane];
+            }
+        }
+        if (totalWeight == 0) {
+            return quotas;
+        }
+        long[] remainders = new long[weights.length];
+        int assigned = 0;
+        for (int lane = 0; lane < weights.length; lane++) {
+            if (open[lane]) {
+                long share = (long) capacity * weights[lane];
+                quotas[lane] = (int) (share / totalWeight);
+                remainders[lane] = share % totalWeight;
+                assigned += quotas[lane];
+            }
+        }
+        // Hand out what rounding down left over, largest remainder first, ties to the higher priority
+        while (assigned < capacity) {
+            int best = -1;
+            for (int lane = 0; lane < weights.length; lane++) {
+                if (open[lane] && (best < 0 || remainders[lane] > remainders[best])) {
+                    best = lane;
+                }
+            }
+            quotas[best]++;
+            remainders[best] = -1;
+            assigned++;
+        }
+        return quotas;
+    }
+}
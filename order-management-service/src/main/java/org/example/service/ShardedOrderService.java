@@ -0,0 +1,86 @@
+package org.example.service;
+
+import org.example.config.ShardContext;
+import org.example.config.ShardRouter;
+import org.example.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Routes each call of {@link OrderServiceImpl} to the shard of the order before its
+ * transaction starts (app.sharding.enabled). New orders get an id from their customer's shard
+ * up front, so the id tells every later call where the order is.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardedOrderService implements OrderService {
+
+    private final OrderServiceImpl delegate;
+    private final ShardRouter shardRouter;
+    private final OrderIdAllocator idAllocator;
+
+    @Autowired
+    public ShardedOrderService(OrderServiceImpl delegate, ShardRouter shardRouter, OrderIdAllocator idAllocator) {
+        this.delegate = delegate;
+        this.shardRouter = shardRouter;
+        this.idAllocator = idAllocator;
+    }
+
+    @Override
+    public Long createOrder(Order order) {
+        return shardRouter.onShard(shardRouter.shardOfCustomer(order.getCustomerName()), () -> {
+            order.setOrderId(idAllocator.nextId());
+            return delegate.createOrder(order);
+        });
+    }
+
+    @Override
+    public Optional<Order> getOrderById(Long id) {
+        return shardRouter.onShard(shardRouter.shardOfOrder(id), () -> delegate.getOrderById(id));
+    }
+
+    @Override
+    public Optional<Long> getOrderVersion(Long id) {
+        return shardRouter.onShard(shardRouter.shardOfOrder(id), () -> delegate.getOrderVersion(id));
+    }
+
+    @Override
+    public Order updateOrder(Long id, Order orderDetails) {
+        return shardRouter.onShard(shardRouter.shardOfOrder(id), () -> delegate.updateOrder(id, orderDetails));
+    }
+
+    @Override
+    public Order updateOrder(Long id, Order orderDetails, Long expectedVersion) {
+        return shardRouter.onShard(shardRouter.shardOfOrder(id),
+                () -> delegate.updateOrder(id, orderDetails, expectedVersion));
+    }
+
+    @Override
+    public void deleteOrder(Long id) {
+        shardRouter.onShard(shardRouter.shardOfOrder(id), () -> {
+            delegate.deleteOrder(id);
+            return null;
+        });
+    }
+
+    /**
+     * Processes the current shard when called on one (the scheduler fans out itself), every
+     * shard otherwise.
+     */
+    @Override
+    public List<Order> processUnprocessedOrders() {
+        if (ShardContext.current() != null) {
+            return delegate.processUnprocessedOrders();
+        }
+        List<Order> processed = new ArrayList<>();
+        shardRouter.onEachShard(shard -> delegate.processUnprocessedOrders()).forEach(processed::addAll);
+        return processed;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the load, callers arriving
+ * while it runs wait for it and get the same result or exception. Nothing is kept once the load
+ * completed, the next call loads again.
+ */
+class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param joined called instead of the load when the caller joins a load already in flight
+     */
+    V execute(K key, Supplier<V> load, Runnable joined) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            joined.run();
+            return await(running);
+        }
+        try {
+            V value = load.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Lets the next call for the key load again instead of joining the load in flight, which may
+     * have read the state from before a write.
+     */
+    void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to the observed latency (AIMD). While requests complete
+ * within the latency target and the limit is actually being used, it grows by one per
+ * completed request; a slow or failed request shrinks it by the backoff ratio. Decreases are
+ * spaced at least one latency target apart, so a burst of slow requests admitted under the
+ * old limit counts as a single congestion signal instead of collapsing the limit to the minimum.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // guarded by this
+    private double estimatedLimit;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    long latencyTargetMs, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max, got " + minLimit + ".." + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1, got " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+        this.lastDecreaseNanos = System.nanoTime() - latencyTargetNanos;
+    }
+
+    /**
+     * Takes a slot if fewer than {@link #getLimit()} requests are in flight. Never waits:
+     * a caller that gets false should shed the request.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot taken by {@link #tryAcquire()} and feeds the request outcome back into the limit.
+     *
+     * @param latencyNanos time the request took
+     * @param failed true if the request failed in a way that indicates overload (5xx, exception)
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyTargetNanos) {
+                if (now - lastDecreaseNanos >= latencyTargetNanos) {
+                    estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inFlightBefore * 2 >= estimatedLimit) {
+                // Only grow while the limit is the bottleneck, not while traffic is light
+                estimatedLimit = Math.min(maxLimit, estimatedLimit + 1);
+            }
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.exception.GlobalExceptionHandler.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Admission control for the order API. Requests are split into lanes, each with its own
+ * adaptive concurrency limit; a request arriving while its lane is full is answered right away
+ * with 503 and Retry-After instead of queueing for a database connection. Single-order reads
+ * (and intake status polls) have their own lane so a burst of writes cannot starve them.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private static final Pattern SINGLE_ORDER_PATH = Pattern.compile("^/orders/(intake/)?[^/]+/?$");
+
+    enum Lane {
+        READ, WRITE
+    }
+
+    private final Map<Lane, AdaptiveConcurrencyLimit> limits = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> rejections = new EnumMap<>(Lane.class);
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+
+    @Autowired
+    public AdmissionControlFilter(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.admission.read.initial-limit:20}") int readInitialLimit,
+                                  @Value("${app.admission.read.min-limit:4}") int readMinLimit,
+                                  @Value("${app.admission.read.max-limit:100}") int readMaxLimit,
+                                  @Value("${app.admission.read.latency-target-ms:200}") long readLatencyTargetMs,
+                                  @Value("${app.admission.write.initial-limit:8}") int writeInitialLimit,
+                                  @Value("${app.admission.write.min-limit:2}") int writeMinLimit,
+                                  @Value("${app.admission.write.max-limit:12}") int writeMaxLimit,
+                                  @Value("${app.admission.write.latency-target-ms:500}") long writeLatencyTargetMs,
+                                  @Value("${app.admission.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${app.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        limits.put(Lane.READ, new AdaptiveConcurrencyLimit(
+                readInitialLimit, readMinLimit, readMaxLimit, readLatencyTargetMs, backoffRatio));
+        limits.put(Lane.WRITE, new AdaptiveConcurrencyLimit(
+                writeInitialLimit, writeMinLimit, writeMaxLimit, writeLatencyTargetMs, backoffRatio));
+        for (Lane lane : Lane.values()) {
+            AdaptiveConcurrencyLimit limit = limits.get(lane);
+            String tag = lane.name().toLowerCase();
+            Gauge.builder("orders.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Current adaptive concurrency limit of the lane")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            Gauge.builder("orders.admission.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests currently admitted in the lane")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            rejections.put(lane, Counter.builder("orders.admission.rejected")
+                    .description("Requests shed with 503 because the lane was at its limit")
+                    .tag("lane", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !(path.equals("/orders") || path.startsWith("/orders/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Lane lane = laneOf(request);
+        AdaptiveConcurrencyLimit limit = limits.get(lane);
+        if (!limit.tryAcquire()) {
+            rejections.get(lane).increment();
+            logger.debug("Shedding {} {}, {} lane at its limit of {}",
+                    request.getMethod(), request.getRequestURI(), lane, limit.getLimit());
+            reject(response, lane);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limit.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    AdaptiveConcurrencyLimit limitOf(Lane lane) {
+        return limits.get(lane);
+    }
+
+    static Lane laneOf(HttpServletRequest request) {
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        return read && SINGLE_ORDER_PATH.matcher(path(request)).matches() ? Lane.READ : Lane.WRITE;
+    }
+
+    private void reject(HttpServletResponse response, Lane lane) throws IOException {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Too many concurrent " + lane.name().toLowerCase() + " requests, retry later",
+                System.currentTimeMillis()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
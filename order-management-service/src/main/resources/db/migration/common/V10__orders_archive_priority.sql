@@ -0,0 +1,3 @@
+-- Processing lane of archived orders (OrderPriority code); orders archived before this kept no
+-- priority and read as standard (1)
+ALTER TABLE orders_archive ADD COLUMN priority SMALLINT DEFAULT 1 NOT NULL;
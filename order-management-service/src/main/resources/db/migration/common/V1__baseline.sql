@@ -0,0 +1,48 @@
+-- Baseline of the schema previously maintained by hibernate.ddl-auto=update.
+-- Written in SQL understood by both PostgreSQL and H2.
+-- Databases created by ddl-auto are baselined at version 0 and run this script too, so every
+-- statement only adds what is missing: the tables and columns ddl-auto added over time.
+
+CREATE TABLE IF NOT EXISTS orders (
+    order_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    version       BIGINT,
+    customer_name VARCHAR(255),
+    status        SMALLINT NOT NULL,
+    order_date    TIMESTAMP,
+    claimed_at    TIMESTAMP,
+    processed_at  TIMESTAMP
+);
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS processed_at TIMESTAMP;
+
+CREATE TABLE IF NOT EXISTS order_lines (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT,
+    quantity   INTEGER,
+    price      NUMERIC(19, 2),
+    order_id   BIGINT NOT NULL,
+    CONSTRAINT fk_order_lines_order FOREIGN KEY (order_id) REFERENCES orders (order_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_lines_order_id ON order_lines (order_id);
+
+CREATE TABLE IF NOT EXISTS orders_archive (
+    order_id      BIGINT PRIMARY KEY,
+    version       BIGINT,
+    customer_name VARCHAR(255),
+    status        SMALLINT,
+    order_date    TIMESTAMP,
+    archived_at   TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS order_lines_archive (
+    id         BIGINT PRIMARY KEY,
+    product_id BIGINT,
+    quantity   INTEGER,
+    price      NUMERIC(19, 2),
+    order_id   BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_lines_archive_order_id ON order_lines_archive (order_id);
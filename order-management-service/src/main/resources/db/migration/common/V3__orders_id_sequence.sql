@@ -0,0 +1,4 @@
+-- Order ids come from a sequence handed out in blocks of 50 (hibernate pooled-lo optimizer and
+-- OrderIdAllocator both use the ids [nextval, nextval + 49]), so ids can be assigned without an
+-- insert. order_id keeps its identity default for rows inserted by hand.
+CREATE SEQUENCE orders_id_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,2 @@
+-- Processing lane of an order (OrderPriority code), existing orders are standard (1)
+ALTER TABLE orders ADD COLUMN priority SMALLINT DEFAULT 1 NOT NULL;
@@ -0,0 +1,9 @@
+-- Orders written before versioning have no version: a forced increment on them fails and
+-- they get no ETag. Start them at 0 like new orders.
+UPDATE orders SET version = 0 WHERE version IS NULL;
+ALTER TABLE orders ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE orders ALTER COLUMN version SET NOT NULL;
+
+UPDATE orders_archive SET version = 0 WHERE version IS NULL;
+ALTER TABLE orders_archive ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE orders_archive ALTER COLUMN version SET NOT NULL;
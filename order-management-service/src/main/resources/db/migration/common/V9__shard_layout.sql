@@ -0,0 +1,7 @@
+-- Which shard of how many this database is, written on the first start with app.sharding.enabled
+-- and checked on every later one (ShardLayout). Stays empty without sharding.
+CREATE TABLE shard_layout (
+    shard_index INTEGER NOT NULL,
+    shard_count INTEGER NOT NULL,
+    CONSTRAINT pk_shard_layout PRIMARY KEY (shard_index)
+);
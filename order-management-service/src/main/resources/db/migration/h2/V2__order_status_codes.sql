@@ -0,0 +1,12 @@
+-- Counterpart of postgresql/V2 for databases created by ddl-auto before statuses became
+-- OrderStatus codes. H2 has no procedural blocks: the CASE maps the old text values and passes
+-- codes through, so the statements are no-ops on a smallint column.
+UPDATE orders SET status = CASE CAST(status AS VARCHAR)
+    WHEN 'unprocessed' THEN '0' WHEN 'processing' THEN '1'
+    WHEN 'processed' THEN '2' WHEN 'failed' THEN '3' ELSE CAST(status AS VARCHAR) END;
+ALTER TABLE orders ALTER COLUMN status SET DATA TYPE SMALLINT;
+
+UPDATE orders_archive SET status = CASE CAST(status AS VARCHAR)
+    WHEN 'unprocessed' THEN '0' WHEN 'processing' THEN '1'
+    WHEN 'processed' THEN '2' WHEN 'failed' THEN '3' ELSE CAST(status AS VARCHAR) END;
+ALTER TABLE orders_archive ALTER COLUMN status SET DATA TYPE SMALLINT;
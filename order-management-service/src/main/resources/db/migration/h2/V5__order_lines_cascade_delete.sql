@@ -0,0 +1,4 @@
+-- Deleting an order removes its lines in the database, so deletes need no entity loading
+ALTER TABLE order_lines DROP CONSTRAINT fk_order_lines_order;
+ALTER TABLE order_lines ADD CONSTRAINT fk_order_lines_order
+    FOREIGN KEY (order_id) REFERENCES orders (order_id) ON DELETE CASCADE;
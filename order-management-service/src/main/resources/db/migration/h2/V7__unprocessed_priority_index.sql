@@ -0,0 +1,2 @@
+-- H2 has no partial indexes; same lookup path as the PostgreSQL index, see OrderRepository.findUnprocessed
+CREATE INDEX idx_orders_unprocessed_priority ON orders (status, priority, order_id);
@@ -0,0 +1,21 @@
+-- Databases created by ddl-auto before statuses became OrderStatus codes still have text columns.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'orders' AND column_name = 'status'
+                 AND data_type IN ('character varying', 'text')) THEN
+        ALTER TABLE orders ALTER COLUMN status TYPE SMALLINT USING
+            CASE status WHEN 'unprocessed' THEN 0 WHEN 'processing' THEN 1
+                        WHEN 'processed' THEN 2 WHEN 'failed' THEN 3 END;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'orders_archive' AND column_name = 'status'
+                 AND data_type IN ('character varying', 'text')) THEN
+        ALTER TABLE orders_archive ALTER COLUMN status TYPE SMALLINT USING
+            CASE status WHEN 'unprocessed' THEN 0 WHEN 'processing' THEN 1
+                        WHEN 'processed' THEN 2 WHEN 'failed' THEN 3 END;
+    END IF;
+END $$;
+
+-- Covers only the processing queue (status 0 = OrderStatus.UNPROCESSED), see OrderRepository.findUnprocessed
+CREATE INDEX IF NOT EXISTS idx_orders_unprocessed ON orders (order_id) WHERE status = 0;
@@ -0,0 +1,4 @@
+-- Continue after the ids already handed out by the identity column, archived orders included
+SELECT setval('orders_id_seq', GREATEST(
+        (SELECT COALESCE(MAX(order_id), 0) FROM orders),
+        (SELECT COALESCE(MAX(order_id), 0) FROM orders_archive)) + 1, false);
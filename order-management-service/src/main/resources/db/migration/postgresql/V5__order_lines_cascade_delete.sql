@@ -0,0 +1,15 @@
+-- Deleting an order removes its lines in the database, so deletes need no entity loading.
+-- Databases created by ddl-auto carry a generated constraint name, drop whatever FK links the tables.
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conname FROM pg_constraint
+              WHERE conrelid = 'order_lines'::regclass AND confrelid = 'orders'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE order_lines DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE order_lines ADD CONSTRAINT fk_order_lines_order
+    FOREIGN KEY (order_id) REFERENCES orders (order_id) ON DELETE CASCADE;
@@ -0,0 +1,4 @@
+-- The processing queue is read per priority lane, see OrderRepository.findUnprocessed.
+-- Like idx_orders_unprocessed, which it replaces, it only holds pending rows (status 0).
+CREATE INDEX IF NOT EXISTS idx_orders_unprocessed_priority ON orders (priority, order_id) WHERE status = 0;
+DROP INDEX IF EXISTS idx_orders_unprocessed;
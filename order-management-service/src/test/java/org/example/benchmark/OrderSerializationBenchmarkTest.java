@@ -0,0 +1,85 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.dto.OrderResponse;
+import org.example.model.Order;
+import org.example.model.OrderLine;
+import org.example.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Measures GET /orders/{id} serialization throughput: entity to DTO mapping plus JSON
+ * encoding, with the plain and the Blackbird-enabled ObjectMapper. The service's converters are
+ * built from the application ObjectMapper, which has Blackbird on Java 11+, so the second row is
+ * the production path.
+ * Run with: mvn test -Dtest=OrderSerializationBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OrderSerializationBenchmarkTest {
+
+    private static final int[] LINE_COUNTS = {1, 100, 5_000};
+
+    @Test
+    void measureSerializationThroughput() throws Exception {
+        ObjectMapper plain = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper blackbird = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+
+        System.out.printf("%-12s %8s %12s %14s %14s%n", "mapper", "lines", "bytes", "map us/op", "orders/s");
+        for (int lineCount : LINE_COUNTS) {
+            Order order = order(lineCount);
+            run("plain", plain, order);
+            run("blackbird", blackbird, order);
+        }
+    }
+
+    private void run(String name, ObjectMapper mapper, Order order) throws Exception {
+        int iterations = Math.max(50, 500_000 / order.getOrderLines().size());
+
+        for (int i = 0; i < iterations; i++) {
+            mapper.writeValueAsBytes(OrderResponse.from(order));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            OrderResponse.from(order);
+        }
+        double mapMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        int bytes = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = mapper.writeValueAsBytes(OrderResponse.from(order)).length;
+        }
+        double ordersPerSecond = iterations / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+        System.out.printf("%-12s %8d %12d %14.2f %14.0f%n", name, order.getOrderLines().size(), bytes, mapMicros, ordersPerSecond);
+    }
+
+    private static Order order(int lineCount) {
+        Order order = new Order();
+        order.setOrderId(42L);
+        order.setVersion(3L);
+        order.setCustomerName("Benchmark Customer");
+        order.setStatus(OrderStatus.PROCESSED);
+        order.setOrderDate(LocalDateTime.of(2025, 8, 8, 9, 55, 6));
+        order.setClaimedAt(order.getOrderDate().plusSeconds(30));
+        order.setProcessedAt(order.getOrderDate().plusSeconds(31));
+        for (int i = 0; i < lineCount; i++) {
+            OrderLine orderLine = new OrderLine();
+            orderLine.setId((long) i);
+            orderLine.setProductId(1_000L + i);
+            orderLine.setQuantity(1 + i % 10);
+            orderLine.setPrice(new BigDecimal("19.99"));
+            orderLine.setOrderId(42L);
+            orderLine.setOrder(order);
+            order.addOrderLine(orderLine);
+        }
+        return order;
+    }
+}
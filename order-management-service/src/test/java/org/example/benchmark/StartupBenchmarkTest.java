@@ -0,0 +1,61 @@
+package org.example.benchmark;
+
+import org.example.OrderManagementApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the time from SpringApplication.run to a ready context with the default settings
+ * and with the startup-optimized prod profile. Every boot gets a fresh in-memory database,
+ * so the Flyway migrations are part of the measurement.
+ * Run with: mvn test -Dtest=StartupBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class StartupBenchmarkTest {
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    private int databaseCounter;
+
+    @Test
+    void compareStartupTimes() {
+        System.out.printf("%-10s %10s %10s %10s%n", "profiles", "min ms", "median ms", "max ms");
+        run("test");
+        run("test", "prod");
+    }
+
+    private void run(String... profiles) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            boot(profiles);
+        }
+        long[] millis = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            millis[i] = boot(profiles);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-10s %10d %10d %10d%n", String.join(",", profiles),
+                millis[0], millis[MEASURED_RUNS / 2], millis[MEASURED_RUNS - 1]);
+    }
+
+    private long boot(String... profiles) {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderManagementApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:startup" + (databaseCounter++),
+                        "logging.level.root=WARN",
+                        "spring.jpa.show-sql=false")
+                .run()) {
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            assertThat(context.isActive()).isTrue();
+            return elapsed;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.OrderLogRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size and encode/decode cost of the order log payload in JSON and CBOR.
+ * Run with: mvn test -Dtest=WireFormatBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class WireFormatBenchmarkTest {
+
+    private static final int[] BATCH_SIZES = {1, 100, 10_000};
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+    @Test
+    void compareJsonAndCbor() throws Exception {
+        System.out.printf("%-6s %8s %12s %14s %14s%n", "format", "batch", "bytes", "encode us/op", "decode us/op");
+        for (int batchSize : BATCH_SIZES) {
+            List<OrderLogRequest> batch = batch(batchSize);
+            run("json", json, batch);
+            run("cbor", cbor, batch);
+        }
+    }
+
+    private void run(String format, ObjectMapper mapper, List<OrderLogRequest> batch) throws Exception {
+        JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, OrderLogRequest.class);
+        int iterations = Math.max(20, 200_000 / batch.size());
+
+        byte[] payload = mapper.writeValueAsBytes(batch);
+        List<OrderLogRequest> decoded = mapper.readValue(payload, type);
+        assertThat(decoded).isEqualTo(batch);
+
+        // Warm up both paths before measuring
+        for (int i = 0; i < iterations; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(batch), type);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            payload = mapper.writeValueAsBytes(batch);
+        }
+        double encodeMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            mapper.readValue(payload, type);
+        }
+        double decodeMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        System.out.printf("%-6s %8d %12d %14.2f %14.2f%n", format, batch.size(), payload.length, encodeMicros, decodeMicros);
+    }
+
+    private static List<OrderLogRequest> batch(int size) {
+        List<OrderLogRequest> batch = new ArrayList<>(size);
+        Instant now = Instant.parse("2025-08-08T09:55:06Z");
+        for (int i = 0; i < size; i++) {
+            OrderLogRequest request = new OrderLogRequest();
+            request.setOrderId(100_000L + i);
+            request.setCustomerName("Customer " + (i % 500));
+            request.setDate(now.plusSeconds(i));
+            request.setItemsCount(1 + i % 40);
+            request.setAmount(new BigDecimal("19.99").multiply(BigDecimal.valueOf(1 + i % 40)));
+            request.setProcessingTimeMs(60_000L + i % 1_000);
+            request.setQueueWaitMs(59_000L + i % 1_000);
+            request.setProcessStageMs((long) (i % 50));
+            request.setLogDelayMs((long) (i % 200));
+            batch.add(request);
+        }
+        return batch;
+    }
+}
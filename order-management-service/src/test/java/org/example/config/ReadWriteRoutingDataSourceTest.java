@@ -0,0 +1,79 @@
+package org.example.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private ReadWriteRoutingDataSource routingDataSource;
+    private DataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setup() {
+        DataSource primary = database("primary");
+        replica = database("replica");
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        assertThat(whoAmI(readOnlyTransaction)).isEqualTo("replica");
+        assertThat(whoAmI(readWriteTransaction)).isEqualTo("primary");
+        assertThat(whoAmI()).isEqualTo("primary");
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        new ReplicaLagMonitor(routingDataSource, new JdbcTemplate(replica), "SELECT 10000", 5000).checkReplicaLag();
+        assertThat(whoAmI(readOnlyTransaction)).isEqualTo("primary");
+
+        new ReplicaLagMonitor(routingDataSource, new JdbcTemplate(replica), "SELECT 10", 5000).checkReplicaLag();
+        assertThat(whoAmI(readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void testUnreachableReplicaFallsBackToPrimary() {
+        new ReplicaLagMonitor(routingDataSource, new JdbcTemplate(replica), "SELECT lag FROM missing_table", 5000)
+                .checkReplicaLag();
+        assertThat(whoAmI(readOnlyTransaction)).isEqualTo("primary");
+    }
+
+    private String whoAmI(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> whoAmI());
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ShardLayoutTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:shard_layout;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE orders (order_id BIGINT PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE orders_archive (order_id BIGINT PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE shard_layout (shard_index INTEGER NOT NULL PRIMARY KEY, shard_count INTEGER NOT NULL)");
+    }
+
+    @Test
+    void testFirstStartWritesLayout() {
+        ShardLayout.verify(dataSource, 1, 3);
+        ShardLayout.verify(dataSource, 1, 3);
+
+        assertThat(jdbc.queryForList("SELECT shard_index || '/' || shard_count FROM shard_layout", String.class))
+                .containsExactly("1/3");
+    }
+
+    @Test
+    void testRejectsChangedShardCount() {
+        ShardLayout.verify(dataSource, 1, 3);
+
+        assertThatThrownBy(() -> ShardLayout.verify(dataSource, 1, 4))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shard 1 of 3");
+    }
+
+    @Test
+    void testRejectsReorderedUrls() {
+        ShardLayout.verify(dataSource, 1, 3);
+
+        assertThatThrownBy(() -> ShardLayout.verify(dataSource, 2, 3))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testRejectsUnshardedDatabaseWithOrdersOfOtherShards() {
+        // The single database from before sharding, ids of every residue
+        for (long id = 1; id <= 6; id++) {
+            jdbc.update("INSERT INTO orders (order_id) VALUES (?)", id);
+        }
+
+        assertThatThrownBy(() -> ShardLayout.verify(dataSource, 0, 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("holds 4 orders");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM shard_layout", Long.class)).isZero();
+    }
+
+    @Test
+    void testAcceptsMovedOrders() {
+        jdbc.update("INSERT INTO orders (order_id) VALUES (3), (6)");
+        jdbc.update("INSERT INTO orders_archive (order_id) VALUES (9)");
+
+        ShardLayout.verify(dataSource, 0, 3);
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM shard_layout", Long.class)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.integration;
+
+import org.example.model.Order;
+import org.example.repository.OrderRepository;
+import org.example.service.ProcessingLanes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two schedulers taking batches at the same time, as two instances on one database would.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ConcurrentProcessingIntegrationTest {
+
+    @Autowired
+    private ProcessingLanes processingLanes;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void testLockedBatchIsSkippedByTheOtherScheduler() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Order order = new Order();
+            order.setCustomerName("Pending Customer " + i);
+            order.setOrderDate(LocalDateTime.now());
+            orderRepository.save(order);
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = ids(processingLanes.nextBatch());
+            taken.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids;
+        }));
+        assertThat(taken.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<Long> second = transactionTemplate.execute(status -> ids(processingLanes.nextBatch()));
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(3);
+        assertThat(second).isEmpty();
+        // Once the first transaction ended without processing them they can be taken again
+        List<Long> again = transactionTemplate.execute(status -> ids(processingLanes.nextBatch()));
+        assertThat(again).hasSize(3);
+    }
+
+    private static List<Long> ids(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Starts the service on a database created by ddl-auto before the Flyway migrations existed:
+ * Flyway has to bring it up to the current schema, otherwise Hibernate's validation fails the
+ * context.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LegacySchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void legacyDatabase(DynamicPropertyRegistry registry) {
+        DriverManagerDataSource legacy = new DriverManagerDataSource(URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("legacy/pre-flyway-schema.sql")).execute(legacy);
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void testLegacyDatabaseIsBaselinedBelowV1() {
+        List<String> applied = new JdbcTemplate(dataSource).queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class);
+
+        assertThat(applied).startsWith("0", "1", "2");
+    }
+
+    @Test
+    void testLegacyOrdersAreReadable() throws Exception {
+        mockMvc.perform(get("/orders/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("Legacy Customer 1"))
+                .andExpect(jsonPath("$.status").value("processed"))
+                .andExpect(jsonPath("$.orderLines.length()").value(2));
+        mockMvc.perform(get("/orders/{id}", 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("unprocessed"));
+    }
+
+    @Test
+    void testLegacyOrdersAreVersioned() throws Exception {
+        mockMvc.perform(get("/orders/{id}", 2))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(put("/orders/{id}", 2)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerName\": \"Legacy Customer 2\", \"orderLines\": ["
+                        + "{\"productId\": 10, \"quantity\": 5, \"price\": 7.50}]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.orderLines[0].quantity").value(5));
+    }
+}
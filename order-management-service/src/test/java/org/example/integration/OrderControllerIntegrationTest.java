@@ -1,22 +1,33 @@
 package org.example.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.dto.OrderResponse;
 import org.example.model.Order;
 import org.example.model.OrderLine;
+import org.example.model.OrderStatus;
 import org.example.repository.OrderRepository;
+import org.example.service.OrderArchiveService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,8 +46,19 @@ public class OrderControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private OrderArchiveService archiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
     @BeforeEach
     void setup() {
+        jdbcTemplate.update("DELETE FROM order_lines_archive");
+        jdbcTemplate.update("DELETE FROM orders_archive");
         orderRepository.deleteAll();
     }
 
@@ -113,6 +135,70 @@ public class OrderControllerIntegrationTest {
                 //.andExpect(jsonPath("$.status").value("processed"));
     }
 
+    @Test
+    void testUpdateAddsNewOrderLines() throws Exception {
+        Order order = orderRepository.save(orderWithLine("Growing Customer"));
+        String updateJson = "{\"customerName\": \"Growing Customer\", \"orderLines\": ["
+                + "{\"productId\": 7, \"quantity\": 3, \"price\": 4.50},"
+                + "{\"productId\": 8, \"quantity\": 1, \"price\": 12.00}]}";
+
+        mockMvc.perform(put("/orders/" + order.getOrderId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderLines", hasSize(2)));
+
+        mockMvc.perform(get("/orders/" + order.getOrderId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderLines[*].productId", containsInAnyOrder(7, 8)));
+    }
+
+    @Test
+    void testConditionalGetReturnsNotModified() throws Exception {
+        Order order = new Order();
+        order.setCustomerName("Polling Customer");
+        orderRepository.save(order);
+
+        MvcResult result = mockMvc.perform(get("/orders/" + order.getOrderId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String eTag = result.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/orders/" + order.getOrderId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testUpdateWithStaleIfMatchFails() throws Exception {
+        Order order = new Order();
+        order.setCustomerName("Contended Customer");
+        orderRepository.save(order);
+        String eTag = "\"" + order.getVersion() + "\"";
+        String updateJson = "{\"customerName\": \"First Writer\", \"orderLines\": []}";
+
+        MvcResult result = mockMvc.perform(put("/orders/" + order.getOrderId())
+                .header("If-Match", eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        String newETag = result.getResponse().getHeader("ETag");
+
+        mockMvc.perform(put("/orders/" + order.getOrderId())
+                .header("If-Match", eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerName\": \"Second Writer\", \"orderLines\": []}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/orders/" + order.getOrderId()).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", newETag))
+                .andExpect(jsonPath("$.customerName").value("First Writer"));
+    }
+
     @Test
     @Transactional
     void testDeleteOrder() throws Exception {
@@ -130,5 +216,120 @@ public class OrderControllerIntegrationTest {
         // Verify it's gone
         mockMvc.perform(get("/orders/" + orderId))
                 .andExpect(status().isNotFound());
+
+        mockMvc.perform(delete("/orders/" + orderId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testBulkDeleteByIds() throws Exception {
+        Order first = orderRepository.save(orderWithLine("Bulk Customer 1"));
+        Order second = orderRepository.save(orderWithLine("Bulk Customer 2"));
+        Order kept = orderRepository.save(orderWithLine("Kept Customer"));
+
+        mockMvc.perform(delete("/orders")
+                .param("ids", first.getOrderId() + "," + second.getOrderId() + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+
+        assertThat(orderRepository.findAll()).extracting("orderId").containsExactly(kept.getOrderId());
+    }
+
+    @Test
+    void testResponseConvertersUseTheApplicationModules() {
+        // The first converter able to write the body is the one serving /orders/{id}
+        for (MediaType mediaType : new MediaType[]{MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR}) {
+            HttpMessageConverter<?> serving = handlerAdapter.getMessageConverters().stream()
+                    .filter(converter -> converter.canWrite(OrderResponse.class, mediaType))
+                    .findFirst().orElseThrow(AssertionError::new);
+            // Blackbird is registered on Java 11+
+            assertThat(serving).isInstanceOf(AbstractJackson2HttpMessageConverter.class);
+            assertThat(((AbstractJackson2HttpMessageConverter) serving).getObjectMapper().getRegisteredModuleIds())
+                    .as(mediaType.toString()).contains(new BlackbirdModule().getTypeId());
+        }
+    }
+
+    @Test
+    void testArchivedOrderIsReadOnly() throws Exception {
+        Long archivedId = archivedOrder("Archived Customer");
+
+        mockMvc.perform(get("/orders/" + archivedId))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/orders/" + archivedId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerName\": \"Renamed Customer\", \"orderLines\": ["
+                        + "{\"productId\": 1, \"quantity\": 2, \"price\": 9.99}]}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Order " + archivedId + " is archived and can no longer be changed or deleted"));
+        mockMvc.perform(delete("/orders/" + archivedId))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/orders/" + archivedId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("Archived Customer"));
+    }
+
+    @Test
+    void testBulkDeleteSkipsArchivedOrders() throws Exception {
+        Long archivedId = archivedOrder("Archived Customer");
+        Order live = orderRepository.save(orderWithLine("Live Customer"));
+
+        mockMvc.perform(delete("/orders")
+                .param("ids", archivedId + "," + live.getOrderId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.archived").value(1));
+
+        assertThat(orderRepository.findAll()).isEmpty();
+        mockMvc.perform(get("/orders/" + archivedId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testBulkDeleteByStatusBefore() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Order failed = orderWithLine("Failed Customer " + i);
+            failed.setStatus(OrderStatus.FAILED);
+            orderRepository.save(failed);
+        }
+        Order unprocessed = orderRepository.save(orderWithLine("Unprocessed Customer"));
+
+        mockMvc.perform(delete("/orders")
+                .param("status", "failed")
+                .param("before", LocalDateTime.now().plusMinutes(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(3));
+
+        assertThat(orderRepository.findAll()).extracting("orderId").containsExactly(unprocessed.getOrderId());
+    }
+
+    @Test
+    void testBulkDeleteRequiresAFilter() throws Exception {
+        mockMvc.perform(delete("/orders"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/orders").param("status", "shipped")
+                .param("before", LocalDateTime.now().toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Long archivedOrder(String customerName) {
+        Order order = orderWithLine(customerName);
+        order.setStatus(OrderStatus.PROCESSED);
+        Long orderId = orderRepository.save(order).getOrderId();
+        archiveService.archiveProcessedOrdersBefore(LocalDateTime.now().plusMinutes(1));
+        return orderId;
+    }
+
+    private static Order orderWithLine(String customerName) {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setOrderDate(LocalDateTime.now());
+        OrderLine orderLine = new OrderLine();
+        orderLine.setProductId(1L);
+        orderLine.setQuantity(1);
+        orderLine.setPrice(new BigDecimal("9.99"));
+        orderLine.setOrder(order);
+        order.addOrderLine(orderLine);
+        return order;
     }
 }
@@ -0,0 +1,116 @@
+package org.example.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.repository.OrderRepository;
+import org.example.service.OrderIntakeJournal;
+import org.example.service.OrderIntakeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "orders.intake.async.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class OrderIntakeIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderIntakeService intakeService;
+
+    @BeforeEach
+    void setup() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void testAcceptedOrderIsWrittenInBackground() throws Exception {
+        Long orderId = accept("Async Customer");
+
+        assertThat(awaitStatus(orderId)).isEqualTo("committed");
+
+        mockMvc.perform(get("/orders/{id}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("Async Customer"))
+                .andExpect(jsonPath("$.status").value("unprocessed"))
+                .andExpect(jsonPath("$.orderLines", hasSize(2)));
+    }
+
+    @Test
+    void testJournalFailureAfterCommitKeepsOrderCommitted() throws Exception {
+        OrderIntakeJournal journal = (OrderIntakeJournal) ReflectionTestUtils.getField(intakeService, "journal");
+        OrderIntakeJournal failingDone = spy(journal);
+        doThrow(new UncheckedIOException(new IOException("No space left on device")))
+                .when(failingDone).appendDone(anyCollection());
+        ReflectionTestUtils.setField(intakeService, "journal", failingDone);
+        try {
+            Long orderId = accept("Disk Full Customer");
+
+            assertThat(awaitStatus(orderId)).isEqualTo("committed");
+            assertThat(orderRepository.findAll()).extracting("customerName").containsExactly("Disk Full Customer");
+        } finally {
+            ReflectionTestUtils.setField(intakeService, "journal", journal);
+        }
+    }
+
+    @Test
+    void testUnknownIntakeIdIsNotFound() throws Exception {
+        mockMvc.perform(get("/orders/intake/{id}", 987654321L))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long accept(String customerName) throws Exception {
+        String orderJson = "{\"customerName\": \"" + customerName + "\","
+                + "\"orderLines\": [{\"productId\": 1, \"quantity\": 2, \"price\": 19.99},"
+                + "{\"productId\": 2, \"quantity\": 1, \"price\": 5.00}]}";
+
+        MvcResult result = mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(orderJson))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        Long orderId = Long.valueOf(result.getResponse().getContentAsString());
+        assertThat(result.getResponse().getHeader("Location")).isEqualTo("/orders/intake/" + orderId);
+        return orderId;
+    }
+
+    private String awaitStatus(Long orderId) throws Exception {
+        String status = null;
+        for (int attempt = 0; attempt < 50 && !"committed".equals(status); attempt++) {
+            Thread.sleep(100);
+            String body = mockMvc.perform(get("/orders/intake/{id}", orderId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode json = objectMapper.readTree(body);
+            status = json.get("status").asText();
+        }
+        return status;
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.integration;
+
+import org.example.config.ShardRouter;
+import org.example.config.ShardRoutingDataSource;
+import org.example.scheduler.OrderProcessingScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "app.sharding.enabled=true",
+        "app.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ShardedOrderIntegrationTest {
+
+    private static final int ORDERS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private OrderProcessingScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            shardJdbc(shard).update("DELETE FROM orders");
+        }
+    }
+
+    @Test
+    void testOrdersArePlacedByCustomerAndRoutedById() throws Exception {
+        List<Long> ids = createOrders();
+
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            List<Long> stored = shardJdbc(shard).queryForList("SELECT order_id FROM orders", Long.class);
+            assertThat(stored).as("orders on shard %d", shard).isNotEmpty();
+            for (Long id : stored) {
+                assertThat(shardRouter.shardOfOrder(id)).isEqualTo(shard);
+            }
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            assertThat(shardRouter.shardOfOrder(id)).isEqualTo(shardRouter.shardOfCustomer("Customer " + i));
+            mockMvc.perform(get("/orders/{id}", id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.customerName").value("Customer " + i));
+        }
+
+        Long updated = ids.get(1);
+        mockMvc.perform(put("/orders/{id}", updated)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(orderJson("Renamed Customer")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("Renamed Customer"));
+        // The order stays on the shard its id points to
+        mockMvc.perform(get("/orders/{id}", updated))
+                .andExpect(jsonPath("$.customerName").value("Renamed Customer"));
+
+        Long deleted = ids.get(2);
+        mockMvc.perform(delete("/orders/{id}", deleted)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/orders/{id}", deleted)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSchedulerProcessesEveryShard() throws Exception {
+        List<Long> ids = createOrders();
+
+        scheduler.processOrders();
+
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            assertThat(shardJdbc(shard).queryForObject("SELECT COUNT(*) FROM orders WHERE status = 0", Integer.class))
+                    .as("unprocessed orders on shard %d", shard).isZero();
+        }
+        mockMvc.perform(get("/orders/{id}", ids.get(0)))
+                .andExpect(jsonPath("$.status").value("processed"));
+    }
+
+    @Test
+    void testBulkDeleteSpansShards() throws Exception {
+        List<Long> ids = createOrders();
+
+        mockMvc.perform(delete("/orders").param("ids", ids.get(0) + "," + ids.get(1) + "," + ids.get(2) + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(3));
+
+        mockMvc.perform(delete("/orders")
+                .param("status", "unprocessed")
+                .param("before", "2999-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(ORDERS - 3));
+    }
+
+    private List<Long> createOrders() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            String body = mockMvc.perform(post("/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(orderJson("Customer " + i)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(Long.valueOf(body));
+        }
+        return ids;
+    }
+
+    private JdbcTemplate shardJdbc(int shard) {
+        return new JdbcTemplate(shards.getShard(shard));
+    }
+
+    private static String orderJson(String customerName) {
+        return "{\"customerName\": \"" + customerName + "\","
+                + "\"orderLines\": [{\"productId\": 1, \"quantity\": 2, \"price\": 19.99}]}";
+    }
+}
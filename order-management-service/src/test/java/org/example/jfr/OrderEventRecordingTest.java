@@ -0,0 +1,104 @@
+package org.example.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.config.FlightRecordingConfig;
+import org.example.config.ShardRouter;
+import org.example.exception.ResourceNotFoundException;
+import org.example.model.Order;
+import org.example.repository.ArchivedOrderRepository;
+import org.example.repository.OrderRepository;
+import org.example.scheduler.OrderProcessingScheduler;
+import org.example.service.OrderProcessingLogClientService;
+import org.example.service.OrderReadCoalescer;
+import org.example.service.OrderService;
+import org.example.service.OrderServiceImpl;
+import org.example.service.ProcessingLanes;
+import org.example.support.jfr.ContinuousRecording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OrderEventRecordingTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private ContinuousRecording recording;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        recording = new FlightRecordingConfig().continuousRecording(Duration.ofMinutes(10), 64L * 1024 * 1024,
+                Duration.ZERO, dumpDirectory.toString());
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.stop();
+    }
+
+    @Test
+    void testDumpContainsProcessingTick() throws Exception {
+        OrderService orderService = mock(OrderService.class);
+        OrderProcessingLogClientService logClientService = mock(OrderProcessingLogClientService.class);
+        when(orderService.processUnprocessedOrders()).thenReturn(Arrays.asList(new Order(), new Order()));
+
+        new OrderProcessingScheduler(orderService, logClientService, new ShardRouter(false, Collections.emptyList()),
+                mock(OrderReadCoalescer.class)).processOrders();
+        verify(logClientService, times(2)).sendOrderLog(any(Order.class));
+
+        Path file = recording.dump(Duration.ofMinutes(1));
+
+        assertThat(file.getParent()).isEqualTo(dumpDirectory.toAbsolutePath());
+        List<RecordedEvent> ticks = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("org.example.OrderProcessingTick"))
+                .collect(Collectors.toList());
+        assertThat(ticks).hasSize(1);
+        assertThat(ticks.get(0).getInt("ordersProcessed")).isEqualTo(2);
+        assertThat(ticks.get(0).getBoolean("succeeded")).isTrue();
+    }
+
+    @Test
+    void testDumpContainsOrderServiceCalls() throws Exception {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(new Order()));
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new OrderServiceImpl(orderRepository,
+                mock(ArchivedOrderRepository.class), mock(ProcessingLanes.class)));
+        proxyFactory.addAspect(new OrderServiceEventAspect());
+        OrderService orderService = proxyFactory.getProxy();
+
+        orderService.getOrderById(7L);
+        when(orderRepository.deleteOrderById(8L)).thenReturn(0);
+        assertThatThrownBy(() -> orderService.deleteOrder(8L)).isInstanceOf(ResourceNotFoundException.class);
+
+        List<RecordedEvent> calls = RecordingFile.readAllEvents(recording.dump(Duration.ofMinutes(1))).stream()
+                .filter(event -> event.getEventType().getName().equals("org.example.OrderService"))
+                .collect(Collectors.toList());
+        assertThat(calls).extracting(event -> event.getString("operation"))
+                .containsExactly("getOrderById", "deleteOrder");
+        assertThat(calls.get(0).getLong("orderId")).isEqualTo(7L);
+        assertThat(calls.get(0).getInt("orderCount")).isEqualTo(1);
+        // Failed calls are recorded too, without orders
+        assertThat(calls.get(1).getLong("orderId")).isEqualTo(8L);
+        assertThat(calls.get(1).getInt("orderCount")).isZero();
+    }
+}
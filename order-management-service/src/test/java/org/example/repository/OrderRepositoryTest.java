@@ -2,9 +2,12 @@ package org.example.repository;
 
 import org.example.model.Order;
 import org.example.model.OrderLine;
+import org.example.model.OrderPriority;
+import org.example.model.OrderStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -20,12 +23,15 @@ public class OrderRepositoryTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     void testSaveAndFindById() {
         // Create and save an order
         Order order = new Order();
         order.setCustomerName("Test Customer");
-        order.setStatus("unprocessed");
+        order.setStatus(OrderStatus.UNPROCESSED);
 
         OrderLine orderLine = new OrderLine();
         orderLine.setProductId(101L);
@@ -42,7 +48,7 @@ public class OrderRepositoryTest {
 
         assertThat(foundOrder).isPresent();
         assertThat(foundOrder.get().getCustomerName()).isEqualTo("Test Customer");
-        assertThat(foundOrder.get().getStatus()).isEqualTo("unprocessed");
+        assertThat(foundOrder.get().getStatus()).isEqualTo(OrderStatus.UNPROCESSED);
         assertThat(foundOrder.get().getOrderLines()).hasSize(1);
         assertThat(foundOrder.get().getOrderLines().get(0).getProductId()).isEqualTo(101L);
     }
@@ -52,22 +58,22 @@ public class OrderRepositoryTest {
         // Create and save multiple orders with different statuses
         Order order1 = new Order();
         order1.setCustomerName("Customer 1");
-        order1.setStatus("unprocessed");
+        order1.setStatus(OrderStatus.UNPROCESSED);
         orderRepository.save(order1);
 
         Order order2 = new Order();
         order2.setCustomerName("Customer 2");
-        order2.setStatus("processed");
+        order2.setStatus(OrderStatus.PROCESSED);
         orderRepository.save(order2);
 
         Order order3 = new Order();
         order3.setCustomerName("Customer 3");
-        order3.setStatus("unprocessed");
+        order3.setStatus(OrderStatus.UNPROCESSED);
         orderRepository.save(order3);
 
         // Find by status and verify
-        List<Order> unprocessedOrders = orderRepository.findByStatus("unprocessed");
-        List<Order> processedOrders = orderRepository.findByStatus("processed");
+        List<Order> unprocessedOrders = orderRepository.findByStatus(OrderStatus.UNPROCESSED);
+        List<Order> processedOrders = orderRepository.findByStatus(OrderStatus.PROCESSED);
 
         assertThat(unprocessedOrders).hasSize(2);
         assertThat(processedOrders).hasSize(1);
@@ -78,6 +84,35 @@ public class OrderRepositoryTest {
             .containsExactly("Customer 2");
     }
 
+    @Test
+    void testFindUnprocessed() {
+        Order order1 = new Order();
+        order1.setCustomerName("Customer 1");
+        orderRepository.save(order1);
+
+        Order order2 = new Order();
+        order2.setCustomerName("Customer 2");
+        order2.setStatus(OrderStatus.PROCESSING);
+        orderRepository.save(order2);
+
+        Order order3 = new Order();
+        order3.setCustomerName("Customer 3");
+        order3.setPriority(OrderPriority.EXPRESS);
+        orderRepository.save(order3);
+
+        Order order4 = new Order();
+        order4.setCustomerName("Customer 4");
+        orderRepository.save(order4);
+
+        List<Order> standard = orderRepository.findUnprocessed(OrderPriority.STANDARD.getCode(), -1, 10);
+        List<Order> express = orderRepository.findUnprocessed(OrderPriority.EXPRESS.getCode(), -1, 10);
+        List<Order> afterFirst = orderRepository.findUnprocessed(OrderPriority.STANDARD.getCode(), order1.getOrderId(), 10);
+
+        assertThat(standard).extracting("customerName").containsExactly("Customer 1", "Customer 4");
+        assertThat(express).extracting("customerName").containsExactly("Customer 3");
+        assertThat(afterFirst).extracting("customerName").containsExactly("Customer 4");
+    }
+
     @Test
     void testDeleteOrder() {
         // Create and save an order
@@ -93,5 +128,30 @@ public class OrderRepositoryTest {
         orderRepository.delete(savedOrder);
         assertThat(orderRepository.findById(orderId)).isEmpty();
     }
+
+    @Test
+    void testDeleteOrderByIdCascadesToOrderLines() {
+        Order order = new Order();
+        order.setCustomerName("Customer with lines");
+        for (long productId = 1; productId <= 3; productId++) {
+            OrderLine orderLine = new OrderLine();
+            orderLine.setProductId(productId);
+            orderLine.setQuantity(1);
+            orderLine.setPrice(new BigDecimal("5.00"));
+            orderLine.setOrder(order);
+            order.addOrderLine(orderLine);
+        }
+        Long orderId = orderRepository.saveAndFlush(order).getOrderId();
+
+        assertThat(orderRepository.deleteOrderById(orderId)).isEqualTo(1);
+        assertThat(orderRepository.deleteOrderById(orderId)).isZero();
+
+        Number remainingLines = (Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM order_lines WHERE order_id = :orderId")
+                .setParameter("orderId", orderId)
+                .getSingleResult();
+        assertThat(remainingLines.longValue()).isZero();
+        assertThat(orderRepository.findById(orderId)).isEmpty();
+    }
 }
 
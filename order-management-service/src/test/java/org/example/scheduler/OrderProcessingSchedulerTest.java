@@ -0,0 +1,82 @@
+package org.example.scheduler;
+
+import org.example.config.ShardRouter;
+import org.example.model.Order;
+import org.example.service.OrderProcessingLogClientService;
+import org.example.service.OrderReadCoalescer;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.IntFunction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderProcessingSchedulerTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderProcessingLogClientService logClientService;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private OrderReadCoalescer orderReads;
+
+    private OrderProcessingScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        scheduler = new OrderProcessingScheduler(orderService, logClientService, shardRouter, orderReads);
+        // A single shard
+        lenient().when(shardRouter.onEachShard(any())).thenAnswer(invocation ->
+                Collections.singletonList(invocation.<IntFunction<?>>getArgument(0).apply(0)));
+    }
+
+    @Test
+    void testProcessedOrdersAreInvalidatedAfterCommit() {
+        Order first = order(1L);
+        Order second = order(2L);
+        when(orderService.processUnprocessedOrders()).thenReturn(Arrays.asList(first, second));
+
+        scheduler.processOrders();
+
+        InOrder afterCommit = inOrder(orderService, orderReads);
+        afterCommit.verify(orderService).processUnprocessedOrders();
+        afterCommit.verify(orderReads).invalidate(1L);
+        afterCommit.verify(orderReads).invalidate(2L);
+        verify(logClientService).sendOrderLog(first);
+        verify(logClientService).sendOrderLog(second);
+    }
+
+    @Test
+    void testFailedTickInvalidatesNothing() {
+        when(orderService.processUnprocessedOrders()).thenThrow(new IllegalStateException("database down"));
+
+        scheduler.processOrders();
+
+        verify(orderReads, never()).invalidate(any());
+        verify(logClientService, never()).sendOrderLog(any());
+    }
+
+    private static Order order(Long orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+}
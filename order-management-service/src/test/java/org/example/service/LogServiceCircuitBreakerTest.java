@@ -0,0 +1,64 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogServiceCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final LogServiceCircuitBreaker breaker = new LogServiceCircuitBreaker(3, 1000, now::get);
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.allowRequest()).isTrue();
+
+        breaker.recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(LogServiceCircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+        assertThat(breaker.isRejecting()).isTrue();
+    }
+
+    @Test
+    void testHalfOpenLetsOneProbeThrough() {
+        open();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(breaker.isRejecting()).isFalse();
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(LogServiceCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.recordSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(LogServiceCircuitBreaker.State.CLOSED);
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void testFailedProbeReopens() {
+        open();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        breaker.allowRequest();
+
+        breaker.recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(LogServiceCircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+    }
+}
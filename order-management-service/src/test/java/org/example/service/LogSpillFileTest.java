@@ -0,0 +1,86 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.OrderLogRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogSpillFileTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDeliveredLogsAreRemoved() {
+        Path path = tempDir.resolve("spill.jsonl");
+        LogSpillFile spillFile = new LogSpillFile(path, objectMapper);
+        spillFile.append(request(1L));
+        spillFile.append(Arrays.asList(request(2L), request(3L)));
+
+        assertThat(spillFile.size()).isEqualTo(3);
+        List<OrderLogRequest> spilled = spillFile.readAll();
+        assertThat(spilled).containsExactly(request(1L), request(2L), request(3L));
+        // Nothing is gone until it was delivered
+        assertThat(new LogSpillFile(path, objectMapper).size()).isEqualTo(3);
+
+        spillFile.removeDelivered(spilled.size());
+
+        assertThat(spillFile.size()).isZero();
+        assertThat(Files.exists(path)).isFalse();
+        assertThat(spillFile.readAll()).isEmpty();
+    }
+
+    @Test
+    void testUndeliveredTailAndNewLogsStay() throws Exception {
+        Path path = tempDir.resolve("spill.jsonl");
+        LogSpillFile spillFile = new LogSpillFile(path, objectMapper);
+        spillFile.append(Arrays.asList(request(1L), request(2L)));
+        Files.write(path, Arrays.asList("{not json"), StandardOpenOption.APPEND);
+        spillFile.append(request(3L));
+
+        List<OrderLogRequest> spilled = spillFile.readAll();
+        assertThat(spilled).extracting(OrderLogRequest::getOrderId).containsExactly(1L, 2L, 3L);
+        // Spilled while the first two were being delivered
+        spillFile.append(request(4L));
+
+        spillFile.removeDelivered(2);
+
+        assertThat(spillFile.readAll()).extracting(OrderLogRequest::getOrderId).containsExactly(3L, 4L);
+        assertThat(new LogSpillFile(path, objectMapper).size()).isEqualTo(3);
+        assertThat(Files.exists(path.resolveSibling("spill.jsonl.tmp"))).isFalse();
+    }
+
+    @Test
+    void testSpilledLogsSurviveRestart() {
+        Path path = tempDir.resolve("spill.jsonl");
+        new LogSpillFile(path, objectMapper).append(Arrays.asList(request(1L), request(2L)));
+
+        LogSpillFile reopened = new LogSpillFile(path, objectMapper);
+
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.readAll()).extracting(OrderLogRequest::getOrderId).containsExactly(1L, 2L);
+    }
+
+    private static OrderLogRequest request(Long orderId) {
+        OrderLogRequest request = new OrderLogRequest();
+        request.setOrderId(orderId);
+        request.setCustomerName("Customer " + orderId);
+        request.setDate(Instant.parse("2025-08-08T09:55:06Z"));
+        request.setItemsCount(2);
+        request.setAmount(new BigDecimal("39.98"));
+        return request;
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.service;
+
+import org.example.model.Order;
+import org.example.model.OrderLine;
+import org.example.model.OrderPriority;
+import org.example.model.OrderStatus;
+import org.example.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderArchiveServiceTest {
+
+    @Autowired
+    private OrderArchiveService archiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("DELETE FROM order_lines_archive");
+        jdbcTemplate.update("DELETE FROM orders_archive");
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void testProcessedOrdersMoveToArchive() {
+        Long processedId = saveOrder("Archived Customer", OrderStatus.PROCESSED);
+        Long unprocessedId = saveOrder("Live Customer", OrderStatus.UNPROCESSED);
+
+        int archived = archiveService.archiveProcessedOrdersBefore(LocalDateTime.now().plusMinutes(1));
+
+        assertThat(archived).isEqualTo(1);
+        assertThat(orderRepository.findById(processedId)).isEmpty();
+        assertThat(orderRepository.findById(unprocessedId)).isPresent();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_lines", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void testGetOrderByIdFallsBackToArchive() {
+        Long processedId = saveOrder("Archived Customer", OrderStatus.PROCESSED);
+        archiveService.archiveProcessedOrdersBefore(LocalDateTime.now().plusMinutes(1));
+
+        Optional<Order> order = orderService.getOrderById(processedId);
+
+        assertThat(order).isPresent();
+        assertThat(order.get().getCustomerName()).isEqualTo("Archived Customer");
+        assertThat(order.get().getStatus()).isEqualTo(OrderStatus.PROCESSED);
+        assertThat(order.get().getOrderLines()).hasSize(1);
+        assertThat(order.get().getOrderLines().get(0).getProductId()).isEqualTo(7L);
+    }
+
+    @Test
+    void testArchivedOrderKeepsPriority() {
+        Long processedId = saveOrder("Express Customer", OrderStatus.PROCESSED, OrderPriority.EXPRESS);
+        archiveService.archiveProcessedOrdersBefore(LocalDateTime.now().plusMinutes(1));
+
+        assertThat(orderService.getOrderById(processedId)).get()
+                .extracting(Order::getPriority).isEqualTo(OrderPriority.EXPRESS);
+    }
+
+    @Test
+    void testRecentProcessedOrdersStayLive() {
+        Long processedId = saveOrder("Recent Customer", OrderStatus.PROCESSED);
+
+        int archived = archiveService.archiveProcessedOrdersBefore(LocalDateTime.now().minusDays(1));
+
+        assertThat(archived).isZero();
+        assertThat(orderRepository.findById(processedId)).isPresent();
+    }
+
+    private Long saveOrder(String customerName, OrderStatus status) {
+        return saveOrder(customerName, status, OrderPriority.STANDARD);
+    }
+
+    private Long saveOrder(String customerName, OrderStatus status, OrderPriority priority) {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setStatus(status);
+        order.setPriority(priority);
+
+        OrderLine orderLine = new OrderLine();
+        orderLine.setProductId(7L);
+        orderLine.setQuantity(3);
+        orderLine.setPrice(new BigDecimal("4.50"));
+        orderLine.setOrder(order);
+        order.addOrderLine(orderLine);
+
+        return orderRepository.save(order).getOrderId();
+    }
+}
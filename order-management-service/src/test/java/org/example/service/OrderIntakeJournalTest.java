@@ -0,0 +1,119 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.model.Order;
+import org.example.model.OrderLine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderIntakeJournalTest {
+
+    // Configured like the application's, Blackbird included: the entries are not public
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new BlackbirdModule()).build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecoverReturnsOrdersWithoutDoneRecord() throws Exception {
+        Path path = tempDir.resolve("intake.journal");
+        OrderIntakeJournal journal = new OrderIntakeJournal(path, objectMapper, Long.MAX_VALUE);
+        assertThat(journal.recover()).isEmpty();
+        journal.appendOrder(order(1L));
+        journal.appendOrder(order(2L));
+        journal.appendOrder(order(3L));
+        journal.appendDone(Arrays.asList(1L, 3L));
+        journal.close();
+
+        List<Order> recovered = new OrderIntakeJournal(path, objectMapper, Long.MAX_VALUE).recover();
+
+        assertThat(recovered).hasSize(1);
+        Order order = recovered.get(0);
+        assertThat(order.getOrderId()).isEqualTo(2L);
+        assertThat(order.getCustomerName()).isEqualTo("Customer 2");
+        assertThat(order.getOrderDate()).isEqualTo(LocalDateTime.of(2025, 8, 8, 9, 55));
+        assertThat(order.getOrderLines()).hasSize(1);
+        assertThat(order.getOrderLines().get(0).getOrder()).isSameAs(order);
+        assertThat(order.getOrderLines().get(0).getPrice()).isEqualByComparingTo("4.50");
+    }
+
+    @Test
+    void testRecoverDropsTornLastRecord() throws Exception {
+        Path path = tempDir.resolve("intake.journal");
+        OrderIntakeJournal journal = new OrderIntakeJournal(path, objectMapper, Long.MAX_VALUE);
+        journal.recover();
+        journal.appendOrder(order(1L));
+        journal.close();
+        Files.write(path, "{\"type\":\"ORDER\",\"orderId\":2,\"custo".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        List<Order> recovered = new OrderIntakeJournal(path, objectMapper, Long.MAX_VALUE).recover();
+
+        assertThat(recovered).extracting(Order::getOrderId).containsExactly(1L);
+        assertThat(Files.readAllLines(path)).hasSize(1);
+    }
+
+    @Test
+    void testJournalIsTruncatedOnceNothingIsOutstanding() throws Exception {
+        Path path = tempDir.resolve("intake.journal");
+        OrderIntakeJournal journal = new OrderIntakeJournal(path, objectMapper, 0);
+        journal.recover();
+        journal.appendOrder(order(1L));
+        journal.appendOrder(order(2L));
+
+        journal.appendDone(Arrays.asList(1L));
+        assertThat(Files.size(path)).isPositive();
+        journal.appendDone(Arrays.asList(2L));
+        journal.close();
+
+        assertThat(Files.size(path)).isZero();
+    }
+
+    @Test
+    void testJournalIsCompactedWhileOrdersAreOutstanding() throws Exception {
+        Path path = tempDir.resolve("intake.journal");
+        OrderIntakeJournal journal = new OrderIntakeJournal(path, objectMapper, 0);
+        journal.recover();
+        for (long id = 1; id <= 4; id++) {
+            journal.appendOrder(order(id));
+        }
+
+        // The intake never drains completely, yet the done orders leave the file
+        journal.appendDone(Arrays.asList(1L, 3L));
+        assertThat(Files.readAllLines(path)).hasSize(2);
+        journal.appendOrder(order(5L));
+        journal.close();
+
+        List<Order> recovered = new OrderIntakeJournal(path, objectMapper, 0).recover();
+
+        assertThat(recovered).extracting(Order::getOrderId).containsExactly(2L, 4L, 5L);
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setOrderId(id);
+        order.setCustomerName("Customer " + id);
+        order.setOrderDate(LocalDateTime.of(2025, 8, 8, 9, 55));
+        OrderLine orderLine = new OrderLine();
+        orderLine.setProductId(7L);
+        orderLine.setQuantity(3);
+        orderLine.setPrice(new BigDecimal("4.50"));
+        orderLine.setOrder(order);
+        order.addOrderLine(orderLine);
+        return order;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.service;
+
+import org.example.dto.OrderLogRequest;
+import org.example.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderLogTimingsTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 8, 8, 10, 0);
+
+    @Test
+    void testStageTimingsComeFromTheOrder() {
+        OrderLogRequest request = OrderProcessingLogClientService.toLogRequest(processedOrder());
+
+        assertThat(request.getQueueWaitMs()).isEqualTo(2_000);
+        assertThat(request.getProcessStageMs()).isEqualTo(500);
+        assertThat(request.getProcessedAt()).isEqualTo(CREATED.plusNanos(2_500_000_000L).atZone(ZoneId.systemDefault()).toInstant());
+        // Not known before the log is sent
+        assertThat(request.getLogDelayMs()).isNull();
+        assertThat(request.getProcessingTimeMs()).isNull();
+    }
+
+    @Test
+    void testDeliveryTimingsAreTakenWhenSent() {
+        OrderLogRequest request = OrderProcessingLogClientService.toLogRequest(processedOrder());
+        Instant processedAt = request.getProcessedAt();
+
+        OrderProcessingLogClientService.addDeliveryTimings(request, processedAt.plusMillis(300));
+        assertThat(request.getLogDelayMs()).isEqualTo(300);
+        assertThat(request.getProcessingTimeMs()).isEqualTo(2_800);
+
+        // Replayed from the spill file a minute later
+        OrderProcessingLogClientService.addDeliveryTimings(request, processedAt.plusSeconds(60));
+        assertThat(request.getLogDelayMs()).isEqualTo(60_000);
+        assertThat(request.getProcessingTimeMs()).isEqualTo(62_500);
+    }
+
+    @Test
+    void testDeliveryTimingsOutsideUtc() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        try {
+            // Stamped by the processing scheduler a moment ago, in the local zone
+            Order order = processedOrder();
+            order.setOrderDate(LocalDateTime.now().minusSeconds(3));
+            order.setClaimedAt(order.getOrderDate().plusSeconds(1));
+            order.setProcessedAt(order.getOrderDate().plusSeconds(2));
+            OrderLogRequest request = OrderProcessingLogClientService.toLogRequest(order);
+
+            OrderProcessingLogClientService.addDeliveryTimings(request, Instant.now());
+
+            assertThat(request.getProcessingTimeMs()).isBetween(3_000L, 60_000L);
+            assertThat(request.getLogDelayMs()).isBetween(1_000L, 60_000L);
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    private static Order processedOrder() {
+        Order order = new Order();
+        order.setOrderId(1L);
+        order.setCustomerName("Alice");
+        order.setOrderDate(CREATED);
+        order.setClaimedAt(CREATED.plusSeconds(2));
+        order.setProcessedAt(CREATED.plusNanos(2_500_000_000L));
+        return order;
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dto.OrderResponse;
+import org.example.model.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderReadCoalescerTest {
+
+    private static final int READERS = 8;
+
+    @Mock
+    private OrderService orderService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService readers = Executors.newFixedThreadPool(READERS);
+
+    @AfterEach
+    void tearDown() {
+        readers.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentReadsShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(orderService.getOrderById(1L)).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(order(1L));
+        });
+        OrderReadCoalescer coalescer = new OrderReadCoalescer(orderService, meterRegistry, true);
+
+        List<Future<Optional<OrderResponse>>> results = new ArrayList<>();
+        results.add(readers.submit(() -> coalescer.getOrder(1L)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < READERS; i++) {
+            results.add(readers.submit(() -> coalescer.getOrder(1L)));
+        }
+        // Let the joiners reach the flight before it completes
+        while (meterRegistry.get("orders.read.coalesced").counter().count() < READERS - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        OrderResponse first = results.get(0).get(5, TimeUnit.SECONDS).get();
+        for (Future<Optional<OrderResponse>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).containsSame(first);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testNothingIsKeptAfterTheLoad() {
+        when(orderService.getOrderById(1L)).thenReturn(Optional.of(order(1L)));
+        OrderReadCoalescer coalescer = new OrderReadCoalescer(orderService, meterRegistry, true);
+
+        coalescer.getOrder(1L);
+        coalescer.getOrder(1L);
+
+        verify(orderService, times(2)).getOrderById(1L);
+        assertThat(meterRegistry.get("orders.read.coalesced").counter().count()).isZero();
+    }
+
+    @Test
+    void testFailureReachesEveryCallerAndIsNotKept() {
+        when(orderService.getOrderById(1L))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(Optional.empty());
+        OrderReadCoalescer coalescer = new OrderReadCoalescer(orderService, meterRegistry, true);
+
+        assertThatThrownBy(() -> coalescer.getOrder(1L)).isInstanceOf(IllegalStateException.class);
+        assertThat(coalescer.getOrder(1L)).isEmpty();
+    }
+
+    @Test
+    void testConcurrentFailureReachesEveryJoiner() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(orderService.getOrderById(1L)).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("connection refused");
+        });
+        OrderReadCoalescer coalescer = new OrderReadCoalescer(orderService, meterRegistry, true);
+
+        List<Future<Optional<OrderResponse>>> results = new ArrayList<>();
+        results.add(readers.submit(() -> coalescer.getOrder(1L)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < READERS; i++) {
+            results.add(readers.submit(() -> coalescer.getOrder(1L)));
+        }
+        while (meterRegistry.get("orders.read.coalesced").counter().count() < READERS - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<Optional<OrderResponse>> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("connection refused");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testInvalidateDuringLoadStartsNewLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(orderService.getOrderById(1L)).thenAnswer(invocation -> {
+            if (loads.getAndIncrement() == 0) {
+                // Reads the order before the write below
+                loading.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return Optional.of(order(1L, 0L));
+            }
+            return Optional.of(order(1L, 1L));
+        });
+        OrderReadCoalescer coalescer = new OrderReadCoalescer(orderService, meterRegistry, true);
+
+        Future<Optional<OrderResponse>> stale = readers.submit(() -> coalescer.getOrder(1L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        coalescer.invalidate(1L);
+
+        // Does not wait for the load in flight, which may predate the write
+        Optional<OrderResponse> fresh = coalescer.getOrder(1L);
+        release.countDown();
+
+        assertThat(fresh.get().getVersion()).isEqualTo(1L);
+        assertThat(stale.get(5, TimeUnit.SECONDS).get().getVersion()).isEqualTo(0L);
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("orders.read.coalesced").counter().count()).isZero();
+    }
+
+    private static Order order(Long id) {
+        return order(id, 0L);
+    }
+
+    private static Order order(Long id, Long version) {
+        Order order = new Order();
+        order.setOrderId(id);
+        order.setVersion(version);
+        order.setCustomerName("Customer " + id);
+        return order;
+    }
+}
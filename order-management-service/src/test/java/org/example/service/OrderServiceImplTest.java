@@ -0,0 +1,117 @@
+package org.example.service;
+
+import org.example.exception.InvalidStatusTransitionException;
+import org.example.exception.OrderVersionMismatchException;
+import org.example.model.Order;
+import org.example.model.OrderStatus;
+import org.example.repository.ArchivedOrderRepository;
+import org.example.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private ProcessingLanes processingLanes;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setup() {
+        orderService = new OrderServiceImpl(orderRepository, archivedOrderRepository, processingLanes);
+        ReflectionTestUtils.setField(orderService, "entityManager", entityManager);
+    }
+
+    @Test
+    void testProcessUnprocessedOrdersMarksOrdersProcessed() {
+        Order order = order(1L, OrderStatus.UNPROCESSED);
+        when(processingLanes.nextBatch()).thenReturn(Collections.singletonList(order));
+
+        List<Order> processed = orderService.processUnprocessedOrders();
+
+        assertThat(processed).containsExactly(order);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PROCESSED);
+        assertThat(order.getClaimedAt()).isNotNull();
+        assertThat(order.getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    void testBatchIsClaimedBeforeAnyOrderIsProcessed() {
+        Order first = order(1L, OrderStatus.UNPROCESSED);
+        Order second = order(2L, OrderStatus.UNPROCESSED);
+        when(processingLanes.nextBatch()).thenReturn(Arrays.asList(first, second));
+
+        orderService.processUnprocessedOrders();
+
+        assertThat(second.getClaimedAt()).isEqualTo(first.getClaimedAt());
+        assertThat(first.getProcessedAt()).isAfterOrEqualTo(first.getClaimedAt());
+        assertThat(second.getProcessedAt()).isAfterOrEqualTo(first.getProcessedAt());
+    }
+
+    @Test
+    void testUpdateOrderRequeuesProcessedOrder() {
+        Order order = order(1L, OrderStatus.PROCESSED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.saveAndFlush(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Order updated = orderService.updateOrder(1L, order(1L, OrderStatus.UNPROCESSED));
+
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.UNPROCESSED);
+    }
+
+    @Test
+    void testUpdateOrderRejectsIllegalTransition() {
+        Order order = order(1L, OrderStatus.UNPROCESSED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThatThrownBy(() -> orderService.updateOrder(1L, order(1L, OrderStatus.PROCESSED)))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.UNPROCESSED);
+    }
+
+    @Test
+    void testUpdateOrderRejectsStaleVersion() {
+        Order order = order(1L, OrderStatus.PROCESSED);
+        order.setVersion(3L);
+        order.setCustomerName("Current Customer");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThatThrownBy(() -> orderService.updateOrder(1L, order(1L, OrderStatus.UNPROCESSED), 2L))
+                .isInstanceOf(OrderVersionMismatchException.class);
+        assertThat(order.getCustomerName()).isEqualTo("Current Customer");
+    }
+
+    private static Order order(Long id, OrderStatus status) {
+        Order order = new Order();
+        order.setOrderId(id);
+        order.setCustomerName("Customer " + id);
+        order.setStatus(status);
+        return order;
+    }
+}
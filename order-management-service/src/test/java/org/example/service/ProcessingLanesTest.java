@@ -0,0 +1,127 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.Order;
+import org.example.model.OrderPriority;
+import org.example.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+public class ProcessingLanesTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private final List<Order> pending = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setup() {
+        // The lane query: pending orders of one priority after an id, oldest first, one page
+        lenient().when(orderRepository.findUnprocessed(anyShort(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            short priority = invocation.getArgument(0);
+            long afterId = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return pending.stream()
+                    .filter(order -> order.getPriority().getCode() == priority && order.getOrderId() > afterId)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void testCapacityIsSharedByWeight() {
+        addPending(OrderPriority.BULK, 100);
+        addPending(OrderPriority.STANDARD, 100);
+        addPending(OrderPriority.EXPRESS, 100);
+
+        List<Order> batch = lanes(10).nextBatch();
+
+        assertThat(countByPriority(batch, OrderPriority.EXPRESS)).isEqualTo(6);
+        assertThat(countByPriority(batch, OrderPriority.STANDARD)).isEqualTo(3);
+        assertThat(countByPriority(batch, OrderPriority.BULK)).isEqualTo(1);
+        assertThat(batch.get(0).getPriority()).isEqualTo(OrderPriority.EXPRESS);
+        assertThat(batch.get(batch.size() - 1).getPriority()).isEqualTo(OrderPriority.BULK);
+    }
+
+    @Test
+    void testUnusedShareGoesToTheOtherLanes() {
+        addPending(OrderPriority.EXPRESS, 2);
+        addPending(OrderPriority.STANDARD, 3);
+        addPending(OrderPriority.BULK, 1000);
+
+        List<Order> batch = lanes(100).nextBatch();
+
+        assertThat(batch).hasSize(100);
+        assertThat(countByPriority(batch, OrderPriority.EXPRESS)).isEqualTo(2);
+        assertThat(countByPriority(batch, OrderPriority.STANDARD)).isEqualTo(3);
+        assertThat(countByPriority(batch, OrderPriority.BULK)).isEqualTo(95);
+        // Oldest first within the lane, without gaps across the refill rounds
+        List<Long> bulkIds = batch.stream().filter(order -> order.getPriority() == OrderPriority.BULK)
+                .map(Order::getOrderId).collect(Collectors.toList());
+        assertThat(bulkIds).isSortedAccordingTo(Long::compare).doesNotHaveDuplicates();
+        assertThat(bulkIds.get(bulkIds.size() - 1) - bulkIds.get(0)).isEqualTo(94);
+    }
+
+    @Test
+    void testSmallBacklogIsTakenWhole() {
+        addPending(OrderPriority.STANDARD, 4);
+        addPending(OrderPriority.BULK, 1);
+
+        assertThat(lanes(5000).nextBatch()).hasSize(5);
+    }
+
+    @Test
+    void testQuotasAddUpToCapacity() {
+        int[] quotas = ProcessingLanes.quotas(7, new int[]{6, 3, 1}, new boolean[]{true, true, true});
+        assertThat(quotas).containsExactly(4, 2, 1);
+
+        quotas = ProcessingLanes.quotas(7, new int[]{6, 3, 1}, new boolean[]{false, true, true});
+        assertThat(quotas).containsExactly(0, 5, 2);
+    }
+
+    @Test
+    void testLatencyIsRecordedPerLane() {
+        Order order = new Order();
+        order.setPriority(OrderPriority.EXPRESS);
+        order.setOrderDate(LocalDateTime.of(2025, 8, 8, 10, 0));
+        order.setProcessedAt(order.getOrderDate().plusSeconds(3));
+
+        lanes(10).recordProcessed(order);
+
+        assertThat(meterRegistry.get("orders.processing.latency").tag("lane", "express").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.processing.latency").tag("lane", "bulk").timer().count()).isZero();
+    }
+
+    private ProcessingLanes lanes(int tickCapacity) {
+        return new ProcessingLanes(orderRepository, meterRegistry, tickCapacity, 6, 3, 1);
+    }
+
+    private void addPending(OrderPriority priority, int count) {
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setOrderId((long) pending.size() + 1);
+            order.setPriority(priority);
+            pending.add(order);
+        }
+    }
+
+    private static long countByPriority(List<Order> orders, OrderPriority priority) {
+        return orders.stream().filter(order -> order.getPriority() == priority).count();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void testRejectsOnceLimitIsInFlight() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 100, 0.5);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void testGrowsWhileSaturatedAndFast() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 3, 100, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(FAST, false);
+            limit.release(FAST, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void testDoesNotGrowUnderLightLoad() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, 100, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void testBacksOffOncePerLatencyTarget() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 10, 100, 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            limit.release(SLOW, false);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(4);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    void testFailuresBackOffToMinimum() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 10, 1, 0.5);
+
+        for (int i = 0; i < 3; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, true);
+            Thread.sleep(2);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+}
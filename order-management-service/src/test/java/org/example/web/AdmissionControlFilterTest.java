@@ -0,0 +1,70 @@
+package org.example.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(new ObjectMapper(), meterRegistry,
+                1, 1, 1, 200,
+                1, 1, 1, 500,
+                0.9, 2);
+    }
+
+    @Test
+    void testLaneClassification() {
+        assertThat(AdmissionControlFilter.laneOf(new MockHttpServletRequest("GET", "/orders/42")))
+                .isEqualTo(AdmissionControlFilter.Lane.READ);
+        assertThat(AdmissionControlFilter.laneOf(new MockHttpServletRequest("PUT", "/orders/42")))
+                .isEqualTo(AdmissionControlFilter.Lane.WRITE);
+        assertThat(AdmissionControlFilter.laneOf(new MockHttpServletRequest("POST", "/orders")))
+                .isEqualTo(AdmissionControlFilter.Lane.WRITE);
+    }
+
+    @Test
+    void testFullWriteLaneShedsWritesButNotReads() throws Exception {
+        filter.limitOf(AdmissionControlFilter.Lane.WRITE).tryAcquire();
+
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        MockFilterChain writeChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/orders"), write, writeChain);
+
+        assertThat(write.getStatus()).isEqualTo(503);
+        assertThat(write.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(write.getContentAsString()).contains("\"status\":503");
+        assertThat(writeChain.getRequest()).isNull();
+        assertThat(meterRegistry.get("orders.admission.rejected").tag("lane", "write").counter().count()).isEqualTo(1.0);
+
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        MockFilterChain readChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"), read, readChain);
+
+        assertThat(read.getStatus()).isEqualTo(200);
+        assertThat(readChain.getRequest()).isNotNull();
+        assertThat(filter.limitOf(AdmissionControlFilter.Lane.READ).getInFlight()).isZero();
+    }
+
+    @Test
+    void testOtherPathsAreNotLimited() throws Exception {
+        filter.limitOf(AdmissionControlFilter.Lane.WRITE).tryAcquire();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+}
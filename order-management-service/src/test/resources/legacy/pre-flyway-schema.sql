@@ -0,0 +1,31 @@
+-- The schema hibernate.ddl-auto=update created before the Flyway migrations existed (H2 flavour),
+-- with a few orders. Status was stored as text; there were no version, claimed_at and processed_at
+-- columns and no archive tables. On PostgreSQL the foreign key carries a generated name that
+-- postgresql/V5 looks up; H2 cannot look names up, so here it has the name V1 gives it.
+CREATE TABLE orders (
+    order_id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_name VARCHAR(255),
+    order_date    TIMESTAMP,
+    status        VARCHAR(255)
+);
+
+CREATE TABLE order_lines (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    price      NUMERIC(19, 2),
+    product_id BIGINT,
+    quantity   INTEGER,
+    order_id   BIGINT NOT NULL,
+    CONSTRAINT fk_order_lines_order FOREIGN KEY (order_id) REFERENCES orders (order_id)
+);
+
+CREATE INDEX idx_order_lines_order_id ON order_lines (order_id);
+
+-- Generated ids: 1 and 2 for the orders
+INSERT INTO orders (customer_name, order_date, status) VALUES
+    ('Legacy Customer 1', TIMESTAMP '2025-08-01 10:00:00', 'processed'),
+    ('Legacy Customer 2', TIMESTAMP '2025-08-02 10:00:00', 'unprocessed');
+
+INSERT INTO order_lines (price, product_id, quantity, order_id) VALUES
+    (20.00, 10, 2, 1),
+    (5.00, 30, 1, 1),
+    (7.50, 10, 4, 2);
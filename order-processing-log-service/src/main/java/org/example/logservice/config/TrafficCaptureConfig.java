@@ -0,0 +1,29 @@
+package org.example.logservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.support.capture.TrafficCaptureFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Captures the log API traffic for replay (app.capture.enabled), CBOR and JSON bodies alike.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.capture.enabled", havingValue = "true")
+public class TrafficCaptureConfig {
+
+    @Bean
+    public TrafficCaptureFilter trafficCaptureFilter(MeterRegistry meterRegistry,
+                                                     @Value("${app.capture.file:/tmp/order-log-traffic.cap}") String file,
+                                                     @Value("${app.capture.paths:/logs}") List<String> paths,
+                                                     @Value("${app.capture.max-body-bytes:65536}") int maxBodyBytes,
+                                                     @Value("${app.capture.queue-capacity:10000}") int queueCapacity,
+                                                     @Value("${app.capture.max-file-bytes:1073741824}") long maxFileBytes) {
+        return new TrafficCaptureFilter(meterRegistry, Paths.get(file), paths, maxBodyBytes, queueCapacity, maxFileBytes);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.logservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    // order-management-service posts logs as application/cbor, JSON stays supported
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (converters.stream().noneMatch(MappingJackson2CborHttpMessageConverter.class::isInstance)) {
+            converters.add(new MappingJackson2CborHttpMessageConverter());
+        }
+    }
+}
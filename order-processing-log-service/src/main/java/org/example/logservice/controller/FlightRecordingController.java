@@ -0,0 +1,44 @@
+package org.example.logservice.controller;
+
+import org.example.logservice.model.RecordingDump;
+import org.example.support.jfr.ContinuousRecording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/admin/jfr")
+public class FlightRecordingController {
+    // Present unless app.jfr.enabled=false
+    private final Optional<ContinuousRecording> recording;
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingController.class);
+
+    public FlightRecordingController(Optional<ContinuousRecording> recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Dumps the last {@code minutes} of the continuous recording to a file on the server.
+     */
+    @PostMapping("/dump")
+    public ResponseEntity<RecordingDump> dump(@RequestParam(defaultValue = "10") long minutes)
+            throws IOException, JMException {
+        if (!recording.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (minutes < 1 || minutes > recording.get().getMaxAge().toMinutes()) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Dumping the last {} minutes of the flight recording", minutes);
+        Path file = recording.get().dump(Duration.ofMinutes(minutes));
+        return ResponseEntity.ok(new RecordingDump(file.toString(), minutes, Files.size(file)));
+    }
+}
@@ -1,38 +1,40 @@
 package org.example.logservice.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.logservice.model.OrderProcessingLog;
+import org.example.logservice.model.StageLatency;
 import org.example.logservice.service.OrderProcessingLogService;
+import org.example.logservice.service.ProcessingLatencyRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/logs")
 public class OrderProcessingLogController {
     private final OrderProcessingLogService logService;
+    private final ProcessingLatencyRecorder latencyRecorder;
     private static final Logger logger = LoggerFactory.getLogger(OrderProcessingLogController.class);
-    @Autowired
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
 
-    public OrderProcessingLogController(OrderProcessingLogService logService) {
+    public OrderProcessingLogController(OrderProcessingLogService logService, ProcessingLatencyRecorder latencyRecorder) {
         this.logService = logService;
+        this.latencyRecorder = latencyRecorder;
     }
 
     @PostMapping
     public ResponseEntity<OrderProcessingLog> logOrder(@RequestBody OrderProcessingLog log) {
-
-        try {
-            logger.info("Request: {}",objectMapper.writeValueAsString(log));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+        if (log.getOrderId() == null) {
+            return ResponseEntity.badRequest().build();
         }
+        logger.info("Received log for order {}", log.getOrderId());
         OrderProcessingLog saved = logService.saveLog(log);
         return ResponseEntity.ok(saved);
     }
-}
 
+    @GetMapping("/latency")
+    public ResponseEntity<List<StageLatency>> getLatency() {
+        return ResponseEntity.ok(latencyRecorder.snapshot());
+    }
+}
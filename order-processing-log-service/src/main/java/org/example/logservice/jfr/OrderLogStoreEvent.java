@@ -0,0 +1,21 @@
+package org.example.logservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("org.example.logservice.OrderLogStore")
+@Label("Order Log Store")
+@Category({"Order Processing Log", "Service"})
+@Description("Handling of one received order log, from the duplicate check to the Mongo write")
+public class OrderLogStoreEvent extends Event {
+
+    @Label("Order Id")
+    public long orderId;
+
+    @Label("Outcome")
+    @Description("stored, or duplicate (dropped by the recent delivery filter)")
+    public String outcome;
+}
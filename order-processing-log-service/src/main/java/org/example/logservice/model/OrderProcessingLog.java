@@ -2,7 +2,6 @@ package org.example.logservice.model;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -18,12 +17,15 @@ import java.time.Instant;
 public class OrderProcessingLog implements Serializable {
     @Id
     private Long orderId;
-    private String id;
     private BigDecimal amount;
     private Integer itemsCount;
     private Instant date;
+    private Instant processedAt;
     private String customerName;
     private Long processingTimeMs;
+    private Long queueWaitMs;
+    private Long processStageMs;
+    private Long logDelayMs;
 
     // Getters and setters
     // ...
@@ -0,0 +1,16 @@
+package org.example.logservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingDump {
+    private String file;
+    private long minutes;
+    private long sizeBytes;
+}
@@ -0,0 +1,21 @@
+package org.example.logservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StageLatency {
+    private String stage;
+    // Timings behind the percentiles, recorded within the rolling window
+    private long count;
+    // Every timing recorded since the service started
+    private long totalCount;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+}
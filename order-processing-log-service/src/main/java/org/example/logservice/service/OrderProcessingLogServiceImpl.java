@@ -1,22 +1,61 @@
 package org.example.logservice.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.logservice.jfr.OrderLogStoreEvent;
 import org.example.logservice.model.OrderProcessingLog;
 import org.example.logservice.repository.OrderProcessingLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class OrderProcessingLogServiceImpl implements OrderProcessingLogService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderProcessingLogServiceImpl.class);
+
     private final OrderProcessingLogRepository repository;
+    private final RecentDeliveryFilter recentDeliveries;
+    private final ProcessingLatencyRecorder latencyRecorder;
+    private final Counter duplicatesDropped;
 
     @Autowired
-    public OrderProcessingLogServiceImpl(OrderProcessingLogRepository repository) {
+    public OrderProcessingLogServiceImpl(OrderProcessingLogRepository repository,
+                                         RecentDeliveryFilter recentDeliveries,
+                                         ProcessingLatencyRecorder latencyRecorder,
+                                         MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.recentDeliveries = recentDeliveries;
+        this.latencyRecorder = latencyRecorder;
+        this.duplicatesDropped = Counter.builder("order.logs.duplicates.dropped")
+                .description("Order logs dropped because the same delivery was stored recently")
+                .register(meterRegistry);
     }
 
+    /**
+     * Stores the log keyed on its order id. Saving the same order twice replaces the
+     * document instead of adding a second one, so retried deliveries are harmless;
+     * recently stored deliveries are dropped before reaching Mongo at all.
+     */
     @Override
     public OrderProcessingLog saveLog(OrderProcessingLog log) {
-        return repository.save(log);
+        OrderLogStoreEvent event = new OrderLogStoreEvent();
+        event.orderId = log.getOrderId() != null ? log.getOrderId() : 0;
+        event.begin();
+        try {
+            if (recentDeliveries.isDuplicate(log.getOrderId(), log.getProcessedAt())) {
+                duplicatesDropped.increment();
+                event.outcome = "duplicate";
+                logger.debug("Dropping duplicate log for order {}", log.getOrderId());
+                return log;
+            }
+            OrderProcessingLog saved = repository.save(log);
+            recentDeliveries.record(log.getOrderId(), log.getProcessedAt());
+            latencyRecorder.record(log);
+            event.outcome = "stored";
+            return saved;
+        } finally {
+            event.commit();
+        }
     }
 }
-
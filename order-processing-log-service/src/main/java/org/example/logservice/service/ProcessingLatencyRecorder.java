@@ -0,0 +1,123 @@
+package org.example.logservice.service;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.example.logservice.model.OrderProcessingLog;
+import org.example.logservice.model.StageLatency;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps rolling latency percentiles per pipeline stage, fed by the stage timings that
+ * order-management-service sends with every log. Percentiles come from Micrometer's
+ * time-windowed histograms, so they reflect the last few minutes rather than all time. The
+ * count reported with them covers the same window, rotated in the same steps.
+ */
+@Component
+public class ProcessingLatencyRecorder {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+    private static final int BUFFER_LENGTH = 5;
+
+    private final Clock clock;
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+    private final Map<String, WindowedCount> windowedCounts = new LinkedHashMap<>();
+    private final Map<String, Function<OrderProcessingLog, Long>> stages = new LinkedHashMap<>();
+
+    public ProcessingLatencyRecorder(MeterRegistry meterRegistry,
+                                     @Value("${log.latency.window:PT5M}") Duration window) {
+        this.clock = meterRegistry.config().clock();
+        stages.put("queue_wait", OrderProcessingLog::getQueueWaitMs);
+        stages.put("process", OrderProcessingLog::getProcessStageMs);
+        stages.put("log_delay", OrderProcessingLog::getLogDelayMs);
+        stages.put("end_to_end", OrderProcessingLog::getProcessingTimeMs);
+        for (String stage : stages.keySet()) {
+            timers.put(stage, Timer.builder("order.processing.stage.latency")
+                    .description("Time orders spend in each processing stage")
+                    .tag("stage", stage)
+                    .publishPercentiles(PERCENTILES)
+                    .distributionStatisticExpiry(window)
+                    .distributionStatisticBufferLength(BUFFER_LENGTH)
+                    .register(meterRegistry));
+            windowedCounts.put(stage, new WindowedCount(window.toMillis() / BUFFER_LENGTH, BUFFER_LENGTH));
+        }
+    }
+
+    public void record(OrderProcessingLog log) {
+        for (Map.Entry<String, Function<OrderProcessingLog, Long>> stage : stages.entrySet()) {
+            Long millis = stage.getValue().apply(log);
+            if (millis != null && millis >= 0) {
+                timers.get(stage.getKey()).record(millis, TimeUnit.MILLISECONDS);
+                windowedCounts.get(stage.getKey()).increment(clock.wallTime());
+            }
+        }
+    }
+
+    public List<StageLatency> snapshot() {
+        List<StageLatency> latencies = new ArrayList<>();
+        for (Map.Entry<String, Timer> timer : timers.entrySet()) {
+            HistogramSnapshot snapshot = timer.getValue().takeSnapshot();
+            ValueAtPercentile[] percentiles = snapshot.percentileValues();
+            latencies.add(new StageLatency(timer.getKey(),
+                    windowedCounts.get(timer.getKey()).sum(clock.wallTime()), snapshot.count(),
+                    percentiles[0].value(TimeUnit.MILLISECONDS),
+                    percentiles[1].value(TimeUnit.MILLISECONDS),
+                    percentiles[2].value(TimeUnit.MILLISECONDS)));
+        }
+        return latencies;
+    }
+
+    /**
+     * Ring of per-step counters; the steps older than the window are cleared as time moves on.
+     */
+    private static final class WindowedCount {
+
+        private final long stepMillis;
+        // guarded by this
+        private final long[] steps;
+        private long currentStep;
+
+        WindowedCount(long stepMillis, int stepCount) {
+            this.stepMillis = Math.max(1, stepMillis);
+            this.steps = new long[stepCount];
+        }
+
+        synchronized void increment(long now) {
+            rotate(now);
+            steps[(int) (currentStep % steps.length)]++;
+        }
+
+        synchronized long sum(long now) {
+            rotate(now);
+            long sum = 0;
+            for (long count : steps) {
+                sum += count;
+            }
+            return sum;
+        }
+
+        private void rotate(long now) {
+            long step = now / stepMillis;
+            if (step - currentStep >= steps.length) {
+                Arrays.fill(steps, 0);
+            } else {
+                for (long expired = currentStep + 1; expired <= step; expired++) {
+                    steps[(int) (expired % steps.length)] = 0;
+                }
+            }
+            currentStep = Math.max(currentStep, step);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.logservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the order logs that were stored recently so that retried deliveries
+ * can be dropped without a round trip to Mongo.
+ *
+ * A delivery is identified by the order id and the time the order was processed. A retry
+ * carries both unchanged, while an order that was put back to unprocessed and processed
+ * again sends a new processedAt and is stored, replacing the earlier log. The set keeps the
+ * most recently stored deliveries, a retry arriving after its entry was evicted is stored
+ * again through the upsert on the order id.
+ */
+@Component
+public class RecentDeliveryFilter {
+
+    private final Map<Delivery, Boolean> recentDeliveries;
+
+    public RecentDeliveryFilter(@Value("${log.dedup.recent-ids:10000}") final int capacity) {
+        this.recentDeliveries = new LinkedHashMap<Delivery, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Delivery, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return true if this log of the order was stored recently
+     */
+    public synchronized boolean isDuplicate(Long orderId, Instant processedAt) {
+        return recentDeliveries.get(new Delivery(orderId, processedAt)) != null;
+    }
+
+    public synchronized void record(Long orderId, Instant processedAt) {
+        recentDeliveries.put(new Delivery(orderId, processedAt), Boolean.TRUE);
+    }
+
+    private static final class Delivery {
+
+        private final Long orderId;
+        // null for senders that do not report it, the order id alone identifies those
+        private final Instant processedAt;
+
+        Delivery(Long orderId, Instant processedAt) {
+            this.orderId = orderId;
+            this.processedAt = processedAt;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Delivery)) {
+                return false;
+            }
+            Delivery delivery = (Delivery) other;
+            return Objects.equals(orderId, delivery.orderId) && Objects.equals(processedAt, delivery.processedAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(orderId, processedAt);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.logservice.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.logservice.model.OrderProcessingLog;
+import org.example.logservice.service.OrderProcessingLogService;
+import org.example.logservice.service.ProcessingLatencyRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderProcessingLogControllerTest {
+
+    @Mock
+    private OrderProcessingLogService logService;
+
+    private ProcessingLatencyRecorder latencyRecorder;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        latencyRecorder = new ProcessingLatencyRecorder(new SimpleMeterRegistry(), Duration.ofMinutes(5));
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderProcessingLogController(logService, latencyRecorder)).build();
+    }
+
+    @Test
+    void testLatencyListsEveryStage() throws Exception {
+        OrderProcessingLog log = new OrderProcessingLog();
+        log.setOrderId(1L);
+        log.setQueueWaitMs(200L);
+        log.setProcessStageMs(10L);
+        log.setLogDelayMs(40L);
+        log.setProcessingTimeMs(250L);
+        latencyRecorder.record(log);
+
+        mockMvc.perform(get("/logs/latency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].stage").value("queue_wait"))
+                .andExpect(jsonPath("$[0].count").value(1))
+                .andExpect(jsonPath("$[0].totalCount").value(1))
+                .andExpect(jsonPath("$[0].p50Ms").value(closeTo(200.0, 10.0)))
+                .andExpect(jsonPath("$[2].stage").value("log_delay"))
+                .andExpect(jsonPath("$[2].p99Ms").value(closeTo(40.0, 2.0)))
+                .andExpect(jsonPath("$[3].stage").value("end_to_end"));
+    }
+
+    @Test
+    void testLatencyIsEmptyBeforeTheFirstLog() throws Exception {
+        mockMvc.perform(get("/logs/latency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].count").value(everyItem(is(0))));
+    }
+
+    @Test
+    void testRejectsLogWithoutOrderId() throws Exception {
+        mockMvc.perform(post("/logs").contentType(MediaType.APPLICATION_JSON).content("{\"customerName\":\"Alice\"}"))
+                .andExpect(status().isBadRequest());
+        verify(logService, never()).saveLog(any());
+    }
+
+    @Test
+    void testStoresLog() throws Exception {
+        when(logService.saveLog(any(OrderProcessingLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc.perform(post("/logs").contentType(MediaType.APPLICATION_JSON).content("{\"orderId\":7,\"logDelayMs\":12}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderId").value(7))
+                .andExpect(jsonPath("$.logDelayMs").value(12));
+    }
+}
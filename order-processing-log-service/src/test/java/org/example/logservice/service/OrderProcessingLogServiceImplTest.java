@@ -0,0 +1,96 @@
+package org.example.logservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.logservice.model.OrderProcessingLog;
+import org.example.logservice.repository.OrderProcessingLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderProcessingLogServiceImplTest {
+
+    private static final Instant PROCESSED = Instant.parse("2025-08-08T10:00:02Z");
+
+    @Mock
+    private OrderProcessingLogRepository repository;
+
+    @Mock
+    private RecentDeliveryFilter recentDeliveries;
+
+    @Mock
+    private ProcessingLatencyRecorder latencyRecorder;
+
+    private OrderProcessingLogServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        service = new OrderProcessingLogServiceImpl(repository, recentDeliveries, latencyRecorder, new SimpleMeterRegistry());
+        lenient().when(repository.save(any(OrderProcessingLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testRecordsLatencyOfNewLog() {
+        OrderProcessingLog log = log(1L, PROCESSED);
+
+        service.saveLog(log);
+
+        verify(repository).save(log);
+        verify(recentDeliveries).record(1L, PROCESSED);
+        verify(latencyRecorder).record(log);
+    }
+
+    @Test
+    void testDuplicateIsNotRecorded() {
+        OrderProcessingLog log = log(3L, PROCESSED);
+        when(recentDeliveries.isDuplicate(3L, PROCESSED)).thenReturn(true);
+
+        service.saveLog(log);
+
+        verify(repository, never()).save(any());
+        verify(latencyRecorder, never()).record(any());
+    }
+
+    @Test
+    void testDropsRetriesButStoresReprocessedOrder() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OrderProcessingLogServiceImpl filtered = new OrderProcessingLogServiceImpl(repository,
+                new RecentDeliveryFilter(2), latencyRecorder, meterRegistry);
+
+        filtered.saveLog(log(1L, PROCESSED));
+        filtered.saveLog(log(1L, PROCESSED));
+        verify(repository, times(1)).save(any());
+
+        // Put back to unprocessed and processed again: a new log that replaces the stored one
+        filtered.saveLog(log(1L, PROCESSED.plusSeconds(90)));
+        verify(repository, times(2)).save(any());
+
+        // 1 falls out of the recent deliveries; its retry is stored again through the upsert
+        filtered.saveLog(log(2L, PROCESSED));
+        filtered.saveLog(log(3L, PROCESSED));
+        filtered.saveLog(log(1L, PROCESSED.plusSeconds(90)));
+
+        verify(repository, times(5)).save(any());
+        assertThat(meterRegistry.get("order.logs.duplicates.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    private static OrderProcessingLog log(Long orderId, Instant processedAt) {
+        OrderProcessingLog log = new OrderProcessingLog();
+        log.setOrderId(orderId);
+        log.setProcessedAt(processedAt);
+        log.setLogDelayMs(5L);
+        return log;
+    }
+}
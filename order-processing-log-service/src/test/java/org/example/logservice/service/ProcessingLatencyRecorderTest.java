@@ -0,0 +1,97 @@
+package org.example.logservice.service;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.logservice.model.OrderProcessingLog;
+import org.example.logservice.model.StageLatency;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessingLatencyRecorderTest {
+
+    private final MockClock clock = new MockClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+    private final ProcessingLatencyRecorder recorder = new ProcessingLatencyRecorder(meterRegistry, Duration.ofMinutes(5));
+
+    @Test
+    void testRecordsEveryStage() {
+        for (long i = 1; i <= 100; i++) {
+            recorder.record(log(i, i * 10, 5L, 20L, i * 10 + 25));
+        }
+
+        Map<String, StageLatency> latencies = byStage(recorder.snapshot());
+
+        assertThat(latencies.keySet()).containsExactly("queue_wait", "process", "log_delay", "end_to_end");
+        assertThat(latencies.values()).allSatisfy(latency -> {
+            assertThat(latency.getCount()).isEqualTo(100);
+            assertThat(latency.getTotalCount()).isEqualTo(100);
+        });
+        StageLatency queueWait = latencies.get("queue_wait");
+        // Micrometer's percentiles are approximations, close to the exact value is all it promises
+        assertThat(queueWait.getP50Ms()).isBetween(450.0, 550.0);
+        assertThat(queueWait.getP99Ms()).isBetween(950.0, 1050.0);
+        assertThat(latencies.get("process").getP95Ms()).isBetween(4.0, 6.0);
+        assertThat(meterRegistry.get("order.processing.stage.latency").tag("stage", "log_delay").timer().count())
+                .isEqualTo(100);
+    }
+
+    @Test
+    void testCountCoversTheWindowOnly() {
+        for (long i = 1; i <= 10; i++) {
+            recorder.record(log(i, 100L, 5L, 20L, 125L));
+        }
+        clock.add(Duration.ofMinutes(3));
+        recorder.record(log(11, 1_000L, 5L, 20L, 1_025L));
+
+        assertThat(byStage(recorder.snapshot()).get("queue_wait").getCount()).isEqualTo(11);
+
+        // The first ten fall out of the five minute window, the percentiles forget them too
+        clock.add(Duration.ofMinutes(3));
+        StageLatency queueWait = byStage(recorder.snapshot()).get("queue_wait");
+
+        assertThat(queueWait.getCount()).isEqualTo(1);
+        assertThat(queueWait.getTotalCount()).isEqualTo(11);
+        assertThat(queueWait.getP50Ms()).isBetween(950.0, 1050.0);
+
+        clock.add(Duration.ofMinutes(10));
+        assertThat(byStage(recorder.snapshot()).get("queue_wait").getCount()).isZero();
+    }
+
+    @Test
+    void testSkipsMissingAndNegativeTimings() {
+        // Sent by an older client or with a clock step in between
+        recorder.record(log(1, null, 5L, -3L, 100L));
+
+        Map<String, StageLatency> latencies = byStage(recorder.snapshot());
+
+        assertThat(latencies.get("queue_wait").getCount()).isZero();
+        assertThat(latencies.get("process").getCount()).isEqualTo(1);
+        assertThat(latencies.get("log_delay").getCount()).isZero();
+        assertThat(latencies.get("end_to_end").getCount()).isEqualTo(1);
+    }
+
+    private static OrderProcessingLog log(long orderId, Long queueWaitMs, Long processStageMs, Long logDelayMs,
+                                          Long processingTimeMs) {
+        OrderProcessingLog log = new OrderProcessingLog();
+        log.setOrderId(orderId);
+        log.setQueueWaitMs(queueWaitMs);
+        log.setProcessStageMs(processStageMs);
+        log.setLogDelayMs(logDelayMs);
+        log.setProcessingTimeMs(processingTimeMs);
+        return log;
+    }
+
+    private static Map<String, StageLatency> byStage(List<StageLatency> latencies) {
+        return latencies.stream().collect(Collectors.toMap(StageLatency::getStage, Function.identity(),
+                (a, b) -> a, LinkedHashMap::new));
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.logservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecentDeliveryFilterTest {
+
+    private static final Instant PROCESSED = Instant.parse("2025-08-08T10:00:02Z");
+
+    @Test
+    void testRecordedDeliveryIsDuplicate() {
+        RecentDeliveryFilter filter = new RecentDeliveryFilter(100);
+
+        assertThat(filter.isDuplicate(42L, PROCESSED)).isFalse();
+        filter.record(42L, PROCESSED);
+
+        assertThat(filter.isDuplicate(42L, PROCESSED)).isTrue();
+        assertThat(filter.isDuplicate(43L, PROCESSED)).isFalse();
+    }
+
+    @Test
+    void testReprocessedOrderIsNotDuplicate() {
+        RecentDeliveryFilter filter = new RecentDeliveryFilter(100);
+        filter.record(42L, PROCESSED);
+
+        assertThat(filter.isDuplicate(42L, PROCESSED.plusSeconds(90))).isFalse();
+    }
+
+    @Test
+    void testLogWithoutProcessedAtIsKeyedOnOrderId() {
+        RecentDeliveryFilter filter = new RecentDeliveryFilter(100);
+        filter.record(42L, null);
+
+        assertThat(filter.isDuplicate(42L, null)).isTrue();
+        assertThat(filter.isDuplicate(42L, PROCESSED)).isFalse();
+    }
+
+    @Test
+    void testLookupKeepsDeliveryRecent() {
+        RecentDeliveryFilter filter = new RecentDeliveryFilter(3);
+        filter.record(1L, PROCESSED);
+        filter.record(2L, PROCESSED);
+        filter.record(3L, PROCESSED);
+
+        // Access order: the check makes 1 the most recent, so 2 is evicted instead
+        assertThat(filter.isDuplicate(1L, PROCESSED)).isTrue();
+        filter.record(4L, PROCESSED);
+
+        assertThat(filter.isDuplicate(1L, PROCESSED)).isTrue();
+        assertThat(filter.isDuplicate(2L, PROCESSED)).isFalse();
+        assertThat(filter.isDuplicate(4L, PROCESSED)).isTrue();
+    }
+}
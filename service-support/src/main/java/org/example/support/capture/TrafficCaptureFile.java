@@ -0,0 +1,204 @@
+package org.example.support.capture;
+
+import lombok.Value;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binary format of captured traffic: a header followed by one record per request, appended in
+ * completion order. Both services write it, the load-test replay reads it.
+ *
+ * <pre>
+ * header: int magic "TCAP", byte version
+ * record: byte 'R', long startedAtMicros (epoch), int durationMicros, short status, byte flags,
+ *         utf method, utf uri (path and query), byte header count, (utf name, utf value)*,
+ *         int body length, body, int response body length, response body
+ * </pre>
+ */
+public final class TrafficCaptureFile {
+
+    static final int MAGIC = 0x54434150; // "TCAP"
+    static final byte VERSION = 1;
+    private static final byte RECORD = 'R';
+    private static final byte BODY_TRUNCATED = 1;
+
+    private TrafficCaptureFile() {
+    }
+
+    @Value
+    public static class Record {
+        long startedAtMicros;
+        long durationMicros;
+        int status;
+        String method;
+        String uri;
+        // Content-Type and the conditional request headers, the ones that change the response
+        Map<String, String> headers;
+        byte[] body;
+        boolean bodyTruncated;
+        // Only kept for POST, so a replay can map the ids the capture created to the new ones
+        byte[] responseBody;
+    }
+
+    static void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    static void write(DataOutput out, Record record) throws IOException {
+        out.writeByte(RECORD);
+        out.writeLong(record.getStartedAtMicros());
+        out.writeInt((int) Math.min(record.getDurationMicros(), Integer.MAX_VALUE));
+        out.writeShort(record.getStatus());
+        out.writeByte(record.isBodyTruncated() ? BODY_TRUNCATED : 0);
+        out.writeUTF(record.getMethod());
+        out.writeUTF(record.getUri());
+        out.writeByte(record.getHeaders().size());
+        for (Map.Entry<String, String> header : record.getHeaders().entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+        out.writeInt(record.getBody().length);
+        out.write(record.getBody());
+        out.writeInt(record.getResponseBody().length);
+        out.write(record.getResponseBody());
+    }
+
+    public static Reader open(Path path) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        try {
+            readHeader(in, path);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new Reader(in);
+    }
+
+    /**
+     * Length of the header and the complete records at the start of the file, 0 if not even the
+     * header is complete. Whatever follows is a record cut off by a crash while it was written.
+     */
+    static long completeLength(Path path) throws IOException {
+        CountingInputStream counting = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        try (Reader reader = new Reader(new DataInputStream(counting))) {
+            try {
+                readHeader(reader.in, path);
+            } catch (EOFException e) {
+                return 0;
+            }
+            long complete = counting.count;
+            while (reader.next() != null) {
+                complete = counting.count;
+            }
+            return complete;
+        }
+    }
+
+    private static void readHeader(DataInputStream in, Path path) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException(path + " is not a traffic capture file");
+        }
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported traffic capture version " + version + " in " + path);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    public static class Reader implements Closeable {
+        private final DataInputStream in;
+
+        Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * @return the next record, or null at the end of the file. A record cut off by a crash
+         * while it was written counts as the end.
+         */
+        public Record next() throws IOException {
+            try {
+                int marker = in.read();
+                if (marker == -1) {
+                    return null;
+                }
+                if (marker != RECORD) {
+                    throw new IOException("Corrupt traffic capture record");
+                }
+                long startedAtMicros = in.readLong();
+                long durationMicros = in.readInt();
+                int status = in.readShort();
+                boolean bodyTruncated = (in.readByte() & BODY_TRUNCATED) != 0;
+                String method = in.readUTF();
+                String uri = in.readUTF();
+                int headerCount = in.readUnsignedByte();
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (int i = 0; i < headerCount; i++) {
+                    headers.put(in.readUTF(), in.readUTF());
+                }
+                byte[] body = readBytes();
+                byte[] responseBody = readBytes();
+                return new Record(startedAtMicros, durationMicros, status, method, uri,
+                        Collections.unmodifiableMap(headers), body, bodyTruncated, responseBody);
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+
+        private byte[] readBytes() throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.support.capture;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the production traffic under the given paths so it can be replayed against another
+ * build with the load-test module. Each service declares it as a bean when app.capture.enabled
+ * is set; it runs before every other filter. Request bodies are cached as the controller reads
+ * them; response bodies are only kept for POST, where they carry the id of the created resource.
+ */
+public class TrafficCaptureFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final List<String> CAPTURED_HEADERS = Arrays.asList(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.IF_MATCH, HttpHeaders.IF_NONE_MATCH);
+    private static final int MAX_RESPONSE_BODY_BYTES = 4096;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final TrafficCaptureWriter writer;
+    private final List<String> paths;
+    private final int maxBodyBytes;
+    private final Counter recorded;
+    private final Counter dropped;
+
+    public TrafficCaptureFilter(MeterRegistry meterRegistry, Path file, List<String> paths,
+                                int maxBodyBytes, int queueCapacity, long maxFileBytes) {
+        this(new TrafficCaptureWriter(file, queueCapacity, maxFileBytes), meterRegistry, paths, maxBodyBytes);
+    }
+
+    TrafficCaptureFilter(TrafficCaptureWriter writer, MeterRegistry meterRegistry, List<String> paths, int maxBodyBytes) {
+        this.writer = writer;
+        this.paths = paths;
+        this.maxBodyBytes = maxBodyBytes;
+        this.recorded = Counter.builder("http.capture.recorded")
+                .description("Requests queued for the traffic capture file")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("http.capture.dropped")
+                .description("Requests not captured because the capture writer fell behind or the file is full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Called by both the container and the application context, writes out what is queued.
+     */
+    @Override
+    public void destroy() {
+        writer.close();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String prefix : paths) {
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingRequestWrapper cachingRequest = new ContentCachingRequestWrapper(request, maxBodyBytes);
+        ContentCachingResponseWrapper cachingResponse = "POST".equals(request.getMethod())
+                ? new ContentCachingResponseWrapper(response) : null;
+        long startedAtMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(cachingRequest, cachingResponse != null ? cachingResponse : response);
+        } finally {
+            long durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            byte[] responseBody = EMPTY;
+            if (cachingResponse != null) {
+                byte[] content = cachingResponse.getContentAsByteArray();
+                responseBody = content.length <= MAX_RESPONSE_BODY_BYTES ? content : EMPTY;
+                cachingResponse.copyBodyToResponse();
+            }
+            capture(cachingRequest, response.getStatus(), startedAtMicros, durationMicros, responseBody);
+        }
+    }
+
+    private void capture(ContentCachingRequestWrapper request, int status, long startedAtMicros,
+                         long durationMicros, byte[] responseBody) {
+        byte[] body = request.getContentAsByteArray();
+        if (body.length < maxBodyBytes && request.getContentLengthLong() > body.length) {
+            // The body was never read, e.g. the request was shed before reaching the controller
+            try {
+                StreamUtils.drain(request.getInputStream());
+                body = request.getContentAsByteArray();
+            } catch (IOException | IllegalStateException e) {
+                // keep what was cached, the record is flagged as truncated
+            }
+        }
+        String query = request.getQueryString();
+        String uri = request.getRequestURI().substring(request.getContextPath().length())
+                + (query != null ? "?" + query : "");
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : CAPTURED_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        TrafficCaptureFile.Record record = new TrafficCaptureFile.Record(startedAtMicros, durationMicros, status,
+                request.getMethod(), uri, Collections.unmodifiableMap(headers), body,
+                request.getContentLengthLong() > body.length, responseBody);
+        if (writer.offer(record)) {
+            recorded.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.support.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends captured requests to the capture file on a background thread. Request threads only
+ * offer to a bounded queue; when the writer falls behind, or the file reached its size limit,
+ * records are dropped rather than slowing down the requests being captured.
+ */
+class TrafficCaptureWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCaptureWriter.class);
+
+    private final Path path;
+    private final long maxFileBytes;
+    private final BlockingQueue<TrafficCaptureFile.Record> queue;
+    private final DataOutputStream out;
+    private final Thread thread;
+    private final long sizeAtOpen;
+
+    private volatile boolean running = true;
+
+    TrafficCaptureWriter(Path path, int queueCapacity, long maxFileBytes) {
+        this.path = path;
+        this.maxFileBytes = maxFileBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.sizeAtOpen = Files.exists(path) ? truncateTornRecord(path) : 0;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16));
+            if (sizeAtOpen == 0) {
+                TrafficCaptureFile.writeHeader(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open traffic capture file " + path, e);
+        }
+        this.thread = new Thread(this::writeLoop, "traffic-capture-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Cuts off a record the previous process did not finish writing, so the records appended now
+     * are not read as part of it.
+     *
+     * @return the length of the file after that
+     */
+    private static long truncateTornRecord(Path path) throws IOException {
+        long size = Files.size(path);
+        long complete = TrafficCaptureFile.completeLength(path);
+        if (complete < size) {
+            logger.warn("Traffic capture file {} ends with a partial record, truncating it from {} to {} bytes",
+                    path, size, complete);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+        return complete;
+    }
+
+    /**
+     * @return false if the record was dropped
+     */
+    boolean offer(TrafficCaptureFile.Record record) {
+        return running && queue.offer(record);
+    }
+
+    /**
+     * Stops accepting records and waits for the queued ones to be written. Safe to call twice.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (out) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Closing traffic capture file {} failed: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<TrafficCaptureFile.Record> batch = new ArrayList<>();
+        // DataOutputStream.size() counts what this writer appended, header included
+        long written = sizeAtOpen + out.size();
+        while (running || !queue.isEmpty()) {
+            try {
+                TrafficCaptureFile.Record first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                synchronized (out) {
+                    for (TrafficCaptureFile.Record record : batch) {
+                        if (written >= maxFileBytes) {
+                            logger.warn("Traffic capture file {} reached {} bytes, capture stopped", path, maxFileBytes);
+                            running = false;
+                            queue.clear();
+                            break;
+                        }
+                        TrafficCaptureFile.write(out, record);
+                        written = out.size() + sizeAtOpen;
+                    }
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                logger.error("Writing traffic capture file {} failed, capture stopped: {}", path, e.getMessage());
+                running = false;
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
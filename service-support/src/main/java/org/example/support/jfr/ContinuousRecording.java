@@ -0,0 +1,112 @@
+package org.example.support.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Always-on flight recording with the JDK "default" settings (about 1% overhead) plus the
+ * custom events of the service. It keeps a rolling window on disk bounded by max-age and
+ * max-size, so after a throughput drop the last minutes can be dumped and opened in JDK
+ * Mission Control. Each service enables its own events and registers it as a bean.
+ */
+public class ContinuousRecording {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContinuousRecording.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final String name;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Path dumpDirectory;
+    private final Map<Class<? extends Event>, Duration> events = new LinkedHashMap<>();
+
+    private Recording recording;
+
+    /**
+     * @param name prefix of the recording name and of the dump files, e.g. order-management
+     */
+    public ContinuousRecording(String name, Duration maxAge, long maxSizeBytes, Path dumpDirectory) {
+        this.name = name;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeBytes;
+        this.dumpDirectory = dumpDirectory;
+    }
+
+    public ContinuousRecording enable(Class<? extends Event> eventType) {
+        return enable(eventType, Duration.ZERO);
+    }
+
+    /**
+     * Records the custom event when it took at least {@code threshold}.
+     */
+    public ContinuousRecording enable(Class<? extends Event> eventType, Duration threshold) {
+        events.put(eventType, threshold);
+        return this;
+    }
+
+    public void start() throws IOException, ParseException {
+        recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName(getRecordingName());
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeBytes);
+        events.forEach((eventType, threshold) -> recording.enable(eventType).withThreshold(threshold));
+        recording.start();
+        logger.info("Continuous flight recording started, keeping the last {}", maxAge);
+    }
+
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public String getRecordingName() {
+        return name + "-continuous";
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Writes the last {@code window} of the recording to a new file in the dump directory.
+     * Goes through the JFR.dump diagnostic command, the only way to cut a time window out
+     * of a running recording.
+     */
+    public Path dump(Duration window) throws IOException, JMException {
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve(name + "-" + LocalDateTime.now().format(FILE_TIMESTAMP)
+                + "-last-" + window.toMinutes() + "m.jfr").toAbsolutePath();
+        String[] arguments = {
+                "name=" + getRecordingName(),
+                "filename=" + file,
+                "maxage=" + window.getSeconds() + "s"
+        };
+        ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "jfrDump",
+                new Object[]{arguments}, new String[]{String[].class.getName()});
+        if (!Files.exists(file)) {
+            throw new IOException("JFR.dump did not write " + file);
+        }
+        logger.info("Dumped the last {} of the flight recording to {}", window, file);
+        return file;
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.support.capture;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrafficCaptureFilterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCapturesRequestAndCreatedId() throws Exception {
+        Path file = tempDir.resolve("traffic.cap");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(
+                new TrafficCaptureWriter(file, 100, Long.MAX_VALUE), meterRegistry,
+                Collections.singletonList("/orders"), 1024);
+
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/orders");
+        post.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        post.setContent("{\"customerName\":\"Alice\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse postResponse = new MockHttpServletResponse();
+        filter.doFilter(post, postResponse, new MockFilterChain(new CreateServlet()));
+
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/orders/42");
+        get.setQueryString("expand=lines");
+        get.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        filter.doFilter(get, new MockHttpServletResponse(), new MockFilterChain());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"),
+                new MockHttpServletResponse(), new MockFilterChain());
+        filter.destroy();
+
+        // The client still gets the body the filter cached
+        assertThat(postResponse.getContentAsString()).isEqualTo("42");
+        assertThat(meterRegistry.get("http.capture.recorded").counter().count()).isEqualTo(2.0);
+
+        List<TrafficCaptureFile.Record> records = readAll(file);
+        assertThat(records).hasSize(2);
+
+        TrafficCaptureFile.Record created = records.get(0);
+        assertThat(created.getMethod()).isEqualTo("POST");
+        assertThat(created.getUri()).isEqualTo("/orders");
+        assertThat(created.getStatus()).isEqualTo(201);
+        assertThat(new String(created.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"customerName\":\"Alice\"}");
+        assertThat(created.isBodyTruncated()).isFalse();
+        assertThat(created.getHeaders()).containsEntry(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        assertThat(new String(created.getResponseBody(), StandardCharsets.UTF_8)).isEqualTo("42");
+
+        TrafficCaptureFile.Record read = records.get(1);
+        assertThat(read.getUri()).isEqualTo("/orders/42?expand=lines");
+        assertThat(read.getHeaders()).containsEntry(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+        assertThat(read.getBody()).isEmpty();
+        assertThat(read.getResponseBody()).isEmpty();
+        assertThat(read.getStartedAtMicros()).isGreaterThanOrEqualTo(created.getStartedAtMicros());
+    }
+
+    @Test
+    void testCapturesBodyOfRequestsThatNeverReachTheController() throws Exception {
+        Path file = tempDir.resolve("traffic.cap");
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(
+                new TrafficCaptureWriter(file, 100, Long.MAX_VALUE), new SimpleMeterRegistry(),
+                Collections.singletonList("/orders"), 4);
+
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/orders");
+        post.setContent("{\"customerName\":\"Bob\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(503);
+        filter.doFilter(post, response, new MockFilterChain());
+        filter.destroy();
+
+        TrafficCaptureFile.Record record = readAll(file).get(0);
+        assertThat(record.getStatus()).isEqualTo(503);
+        assertThat(new String(record.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"cu");
+        assertThat(record.isBodyTruncated()).isTrue();
+    }
+
+    @Test
+    void testAppendsToExistingFileAndStopsAtTornRecord() throws Exception {
+        Path file = tempDir.resolve("traffic.cap");
+        for (int i = 0; i < 2; i++) {
+            TrafficCaptureFilter filter = new TrafficCaptureFilter(
+                    new TrafficCaptureWriter(file, 100, Long.MAX_VALUE), new SimpleMeterRegistry(),
+                    Collections.singletonList("/orders"), 1024);
+            filter.doFilter(new MockHttpServletRequest("DELETE", "/orders/" + i),
+                    new MockHttpServletResponse(), new MockFilterChain());
+            filter.destroy();
+        }
+        assertThat(readAll(file)).extracting(TrafficCaptureFile.Record::getUri)
+                .containsExactly("/orders/0", "/orders/1");
+
+        // Crash in the middle of writing the last record
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(Files.size(file) - 3);
+        }
+        assertThat(readAll(file)).extracting(TrafficCaptureFile.Record::getUri)
+                .containsExactly("/orders/0");
+    }
+
+    @Test
+    void testReopeningCutsOffTornRecord() throws Exception {
+        Path file = tempDir.resolve("traffic.cap");
+        capture(file, "/orders/0", "/orders/1");
+
+        // Crash in the middle of writing the last record, then restart and capture more
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(Files.size(file) - 3);
+        }
+        capture(file, "/orders/2", "/orders/3");
+
+        assertThat(readAll(file)).extracting(TrafficCaptureFile.Record::getUri)
+                .containsExactly("/orders/0", "/orders/2", "/orders/3");
+    }
+
+    @Test
+    void testReopeningRewritesTornHeader() throws Exception {
+        Path file = tempDir.resolve("traffic.cap");
+        Files.write(file, new byte[]{0x54, 0x43});
+
+        capture(file, "/orders/1");
+
+        assertThat(readAll(file)).extracting(TrafficCaptureFile.Record::getUri)
+                .containsExactly("/orders/1");
+    }
+
+    @Test
+    void testStopsCapturingAtMaxFileSize() throws Exception {
+        Path file = tempDir.resolve("traffic.cap");
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(
+                new TrafficCaptureWriter(file, 100, 1), new SimpleMeterRegistry(),
+                Collections.singletonList("/orders"), 1024);
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders/1"),
+                new MockHttpServletResponse(), new MockFilterChain());
+        filter.destroy();
+
+        // Only the header fits
+        assertThat(readAll(file)).isEmpty();
+    }
+
+    private static void capture(Path file, String... uris) throws Exception {
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(
+                new TrafficCaptureWriter(file, 100, Long.MAX_VALUE), new SimpleMeterRegistry(),
+                Collections.singletonList("/orders"), 1024);
+        for (String uri : uris) {
+            filter.doFilter(new MockHttpServletRequest("GET", uri),
+                    new MockHttpServletResponse(), new MockFilterChain());
+        }
+        filter.destroy();
+    }
+
+    private static List<TrafficCaptureFile.Record> readAll(Path file) throws IOException {
+        List<TrafficCaptureFile.Record> records = new ArrayList<>();
+        try (TrafficCaptureFile.Reader reader = TrafficCaptureFile.open(file)) {
+            TrafficCaptureFile.Record record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static class CreateServlet extends HttpServlet {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            StreamUtils.drain(request.getInputStream());
+            response.setStatus(201);
+            response.getWriter().write("42");
+        }
+    }
+}
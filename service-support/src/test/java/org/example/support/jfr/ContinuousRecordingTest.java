@@ -0,0 +1,94 @@
+package org.example.support.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ContinuousRecordingTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private ContinuousRecording recording;
+
+    @AfterEach
+    void tearDown() {
+        recording.stop();
+    }
+
+    @Test
+    void testDumpContainsEnabledEvents() throws Exception {
+        recording = new ContinuousRecording("support-test", Duration.ofMinutes(10), 64L * 1024 * 1024, dumpDirectory)
+                .enable(FastEvent.class);
+        recording.start();
+
+        FastEvent event = new FastEvent();
+        event.value = 42;
+        event.commit();
+
+        Path file = recording.dump(Duration.ofMinutes(1));
+
+        assertThat(file.getParent()).isEqualTo(dumpDirectory.toAbsolutePath());
+        assertThat(file.getFileName().toString()).startsWith("support-test-").endsWith("-last-1m.jfr");
+        List<RecordedEvent> fast = events(file, "org.example.support.Fast");
+        assertThat(fast).hasSize(1);
+        assertThat(fast.get(0).getInt("value")).isEqualTo(42);
+    }
+
+    @Test
+    void testThresholdDropsShortEvents() throws Exception {
+        recording = new ContinuousRecording("support-test", Duration.ofMinutes(10), 64L * 1024 * 1024, dumpDirectory)
+                .enable(SlowEvent.class, Duration.ofMillis(20));
+        recording.start();
+
+        SlowEvent quick = new SlowEvent();
+        quick.begin();
+        quick.commit();
+        SlowEvent slow = new SlowEvent();
+        slow.begin();
+        Thread.sleep(50);
+        slow.commit();
+
+        List<RecordedEvent> recorded = events(recording.dump(Duration.ofMinutes(1)), "org.example.support.Slow");
+
+        assertThat(recorded).hasSize(1);
+        assertThat(recorded.get(0).getDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+    }
+
+    @Test
+    void testDumpFailsOnceStopped() throws Exception {
+        recording = new ContinuousRecording("support-test", Duration.ofMinutes(10), 64L * 1024 * 1024, dumpDirectory);
+        recording.start();
+        assertThat(recording.getRecordingName()).isEqualTo("support-test-continuous");
+        recording.stop();
+
+        assertThatThrownBy(() -> recording.dump(Duration.ofMinutes(1))).isInstanceOf(Exception.class);
+    }
+
+    private static List<RecordedEvent> events(Path file, String name) throws Exception {
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    @Name("org.example.support.Fast")
+    static class FastEvent extends Event {
+        int value;
+    }
+
+    @Name("org.example.support.Slow")
+    static class SlowEvent extends Event {
+    }
+}